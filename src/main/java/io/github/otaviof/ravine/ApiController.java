@@ -1,121 +1,141 @@
 package io.github.otaviof.ravine;
 
+import io.github.otaviof.ravine.config.Config;
 import io.github.otaviof.ravine.kafka.AvroProducerException;
+import io.github.otaviof.ravine.kafka.PayloadFormat;
 import io.github.otaviof.ravine.kafka.ProducerGroupAvroConversionException;
 import io.github.otaviof.ravine.router.Request;
 import io.github.otaviof.ravine.router.Router;
 import io.github.otaviof.ravine.router.RouterRouteMethodNotAllowedException;
 import io.github.otaviof.ravine.router.RouterRouteNotFoundException;
-import io.github.otaviof.ravine.router.RouterRouteTimeoutException;
+import io.github.otaviof.ravine.router.RouterRouteOverloadedException;
+import io.github.otaviof.ravine.router.RouterRoutePayloadTooLargeException;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
- * Define endpoints accepted by this app.
+ * Define endpoints accepted by this app. Requests are handled asynchronously, the servlet thread is
+ * released as soon as the request message is produced, and the response is written when the
+ * response event arrives, or on timeout (RouterRouteTimeoutException).
  */
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @EnableAutoConfiguration
 @RestController
 @Slf4j
 public class ApiController {
     private final Router router;
+    private final int maxBodyBytes;
 
-    public ApiController(Router router) {
+    public ApiController(Config config, Router router) {
         this.router = router;
+        this.maxBodyBytes = config.getExecutor().getMaxBodyBytes();
     }
 
     /**
      * Handle GET based requests, does not expect a body.
      *
      * @param req servlet request instance;
-     * @param res servlet response instance;
-     * @return String based response payload;
+     * @return future response entity with string or record payload;
      * @throws RouterRouteNotFoundException on not being able to route based on path;
      * @throws RouterRouteMethodNotAllowedException http request method is not configured on path;
+     * @throws RouterRouteOverloadedException when in-flight limit is reached;
      * @throws AvroProducerException error on producing a message;
-     * @throws RouterRouteTimeoutException timeout on waiting for response;
      * @throws ProducerGroupAvroConversionException on converting payload to Avro;
      */
     @GetMapping
-    public String handler(HttpServletRequest req, HttpServletResponse res) throws
+    public CompletableFuture<ResponseEntity<Object>> handler(HttpServletRequest req) throws
             RouterRouteNotFoundException,
-            RouterRouteTimeoutException,
             AvroProducerException,
             ProducerGroupAvroConversionException,
-            RouterRouteMethodNotAllowedException {
+            RouterRouteMethodNotAllowedException,
+            RouterRouteOverloadedException {
         var request = new Request(req);
 
         log.info("Handling request for '{}' path, empty body.", request.getPath());
 
-        return routeRequest(request, res);
+        return routeRequest(request);
     }
 
     /**
      * Accept all POST requests send to Ravine, entry point to route a payload via Kafka and wait
-     * for response to arrive.
+     * for response to arrive. Payload is either JSON, Avro binary or Confluent wire-format,
+     * according to content-type. Body is read directly from servlet input stream.
      *
      * @param req servlet request;
-     * @param body request body as array of bytes;
-     * @return response entity based in a generic avro record;
-     * @throws IOException on copying body buffer;
+     * @return future response entity with string or record payload;
+     * @throws IOException on reading body;
+     * @throws RouterRoutePayloadTooLargeException when body is larger than maximum size;
      * @throws RouterRouteNotFoundException on not being able to route based on path;
      * @throws RouterRouteMethodNotAllowedException http request method is not configured on path;
+     * @throws RouterRouteOverloadedException when in-flight limit is reached;
      * @throws AvroProducerException error on producing a message;
-     * @throws RouterRouteTimeoutException timeout on waiting for response;
      * @throws ProducerGroupAvroConversionException on converting payload to Avro;
      */
     @RequestMapping(
-            consumes = "application/json",
+            consumes = {
+                    MediaType.APPLICATION_JSON_VALUE,
+                    PayloadFormat.AVRO_BINARY_VALUE,
+                    PayloadFormat.AVRO_WIRE_FORMAT_VALUE},
             method = {RequestMethod.POST, RequestMethod.PUT})
     @ResponseBody
-    public String handler(
-            HttpServletRequest req, @RequestBody byte[] body, HttpServletResponse res
-    ) throws
+    public CompletableFuture<ResponseEntity<Object>> bodyHandler(HttpServletRequest req) throws
             IOException,
+            RouterRoutePayloadTooLargeException,
             RouterRouteMethodNotAllowedException,
             AvroProducerException,
             RouterRouteNotFoundException,
-            RouterRouteTimeoutException,
+            RouterRouteOverloadedException,
             ProducerGroupAvroConversionException {
-        var request = new Request(req, body);
+        var request = new Request(req, maxBodyBytes);
 
         log.info("Handling request for '{}' path, '{}' bytes", request.getPath(),
                 request.getBody().length);
 
-        return routeRequest(request, res);
+        return routeRequest(request);
     }
 
     /**
      * Execute the routing for a given request, organizing outcomes in a way that Spring Boot can
-     * display the results to the user.
+     * display the results to the user, once the response arrives.
      *
-     * @param req servlet request instance;
-     * @param res servlet response instance;
+     * @param req ravine request instance;
+     * @return future response entity with string or record payload;
      * @throws RouterRouteNotFoundException on not being able to route based on path;
      * @throws RouterRouteMethodNotAllowedException http request method is not configured on path;
+     * @throws RouterRouteOverloadedException when in-flight limit is reached;
      * @throws AvroProducerException error on producing a message;
-     * @throws RouterRouteTimeoutException timeout on waiting for response;
      * @throws ProducerGroupAvroConversionException on converting payload to Avro;
      */
-    private String routeRequest(Request req, HttpServletResponse res) throws
+    private CompletableFuture<ResponseEntity<Object>> routeRequest(Request req) throws
             RouterRouteNotFoundException,
-            RouterRouteTimeoutException,
             AvroProducerException,
             ProducerGroupAvroConversionException,
-            RouterRouteMethodNotAllowedException {
-        var routingResult = router.route(req);
-
-        res.setStatus(routingResult.getStatusCode());
-        res.setContentType(routingResult.getContentType());
+            RouterRouteMethodNotAllowedException,
+            RouterRouteOverloadedException {
+        return router.route(req).thenApply(ResponseEntities::of);
+    }
 
-        return routingResult.getPayload();
+    /**
+     * Reject overloaded requests with 503, informing when the client should try again.
+     *
+     * @param e overloaded exception;
+     * @return response entity;
+     */
+    @ExceptionHandler(RouterRouteOverloadedException.class)
+    public ResponseEntity<Object> overloaded(RouterRouteOverloadedException e) {
+        return ResponseEntities.overloaded(e);
     }
 }
@@ -0,0 +1,153 @@
+package io.github.otaviof.ravine;
+
+import io.github.otaviof.ravine.config.Config;
+import io.github.otaviof.ravine.kafka.PayloadFormat;
+import io.github.otaviof.ravine.router.Request;
+import io.github.otaviof.ravine.router.Router;
+import io.github.otaviof.ravine.router.RouterRouteOverloadedException;
+import io.github.otaviof.ravine.router.RouterRoutePayloadTooLargeException;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive alternative of ApiController, exposing the same endpoints when the application runs as a
+ * reactive web application (WebFlux on Reactor Netty). Enable it with:
+ * "spring.main.web-application-type=reactive".
+ */
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RestController
+@Slf4j
+public class ReactiveApiController {
+    private final Router router;
+    private final int maxBodyBytes;
+
+    public ReactiveApiController(Config config, Router router) {
+        this.router = router;
+        this.maxBodyBytes = config.getExecutor().getMaxBodyBytes();
+    }
+
+    /**
+     * Handle GET based requests, does not expect a body.
+     *
+     * @param req server request;
+     * @return Mono with response entity;
+     */
+    @GetMapping("/**")
+    public Mono<ResponseEntity<Object>> handler(ServerHttpRequest req) {
+        var request = toRequest(req, null);
+
+        log.info("Handling request for '{}' path, empty body.", request.getPath());
+
+        return routeRequest(request);
+    }
+
+    /**
+     * Accept all POST and PUT requests, route payload via Kafka and wait for response to arrive.
+     *
+     * @param req server request;
+     * @return Mono with response entity;
+     */
+    @RequestMapping(
+            value = "/**",
+            consumes = {
+                    MediaType.APPLICATION_JSON_VALUE,
+                    PayloadFormat.AVRO_BINARY_VALUE,
+                    PayloadFormat.AVRO_WIRE_FORMAT_VALUE},
+            method = {RequestMethod.POST, RequestMethod.PUT})
+    public Mono<ResponseEntity<Object>> bodyHandler(ServerHttpRequest req) {
+        return readBody(req).flatMap(body -> {
+            var request = toRequest(req, body);
+
+            log.info("Handling request for '{}' path, '{}' bytes", request.getPath(),
+                    request.getBody().length);
+
+            return routeRequest(request);
+        });
+    }
+
+    /**
+     * Read request body, joining received buffers in a single array. Content-length is checked
+     * before reading, and reading stops as soon as maximum body size is exceeded.
+     *
+     * @param req server request;
+     * @return Mono with body bytes, or RouterRoutePayloadTooLargeException error;
+     */
+    private Mono<byte[]> readBody(ServerHttpRequest req) {
+        try {
+            Request.checkBodySize(req.getHeaders().getContentLength(), maxBodyBytes);
+        } catch (RouterRoutePayloadTooLargeException e) {
+            return Mono.error(e);
+        }
+
+        var received = new AtomicLong();
+        var buffers = req.getBody().<DataBuffer>handle((buffer, sink) -> {
+            try {
+                Request.checkBodySize(
+                        received.addAndGet(buffer.readableByteCount()), maxBodyBytes);
+                sink.next(buffer);
+            } catch (RouterRoutePayloadTooLargeException e) {
+                DataBufferUtils.release(buffer);
+                sink.error(e);
+            }
+        });
+
+        return DataBufferUtils.join(buffers)
+                .map(buffer -> {
+                    var body = new byte[buffer.readableByteCount()];
+                    buffer.read(body);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .defaultIfEmpty(new byte[0]);
+    }
+
+    /**
+     * Convert a reactive server request into a ravine request.
+     *
+     * @param req server request;
+     * @param body request body, or null;
+     * @return ravine request;
+     */
+    private Request toRequest(ServerHttpRequest req, byte[] body) {
+        return new Request(
+                req.getMethodValue(),
+                req.getPath().pathWithinApplication().value(),
+                body,
+                req.getQueryParams().toSingleValueMap(),
+                req.getHeaders());
+    }
+
+    /**
+     * Route the request, and prepare response entity from routing result.
+     *
+     * @param req ravine request;
+     * @return Mono with response entity;
+     */
+    private Mono<ResponseEntity<Object>> routeRequest(Request req) {
+        return router.routeReactive(req).map(ResponseEntities::of);
+    }
+
+    /**
+     * Reject overloaded requests with 503, informing when the client should try again.
+     *
+     * @param e overloaded exception;
+     * @return response entity;
+     */
+    @ExceptionHandler(RouterRouteOverloadedException.class)
+    public ResponseEntity<Object> overloaded(RouterRouteOverloadedException e) {
+        return ResponseEntities.overloaded(e);
+    }
+}
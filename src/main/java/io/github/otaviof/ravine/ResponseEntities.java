@@ -0,0 +1,51 @@
+package io.github.otaviof.ravine;
+
+import io.github.otaviof.ravine.router.Response;
+import io.github.otaviof.ravine.router.RouterRouteOverloadedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Response entities shared by servlet and reactive controllers.
+ */
+final class ResponseEntities {
+    private ResponseEntities() {
+    }
+
+    /**
+     * Convert routing result into response entity, raw responses carry the schema id header, and
+     * cached responses their validators.
+     *
+     * @param routingResult ravine response;
+     * @return response entity;
+     */
+    static ResponseEntity<Object> of(Response routingResult) {
+        var builder = ResponseEntity
+                .status(routingResult.getStatusCode())
+                .contentType(MediaType.parseMediaType(routingResult.getContentType()));
+
+        if (routingResult.getSchemaId() != null) {
+            builder.header(Response.SCHEMA_ID_HEADER, routingResult.getSchemaId().toString());
+        }
+        if (routingResult.getETag() != null) {
+            builder.eTag(routingResult.getETag()).lastModified(routingResult.getLastModified());
+        }
+        return builder.body(routingResult.getBody());
+    }
+
+    /**
+     * Overloaded requests are rejected with 503, informing when the client should try again.
+     *
+     * @param e overloaded exception;
+     * @return response entity;
+     */
+    static ResponseEntity<Object> overloaded(RouterRouteOverloadedException e) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.otaviof.ravine.boot;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers Avro record to JSON writers, for servlet and reactive web applications, so response
+ * records are streamed to clients instead of being rendered as string upfront.
+ */
+@Configuration
+public class AvroJsonCodecs {
+    @Bean
+    @ConditionalOnWebApplication(type = Type.SERVLET)
+    public AvroJsonHttpMessageConverter avroJsonHttpMessageConverter() {
+        return new AvroJsonHttpMessageConverter();
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = Type.REACTIVE)
+    public CodecCustomizer avroJsonCodecCustomizer() {
+        return configurer -> configurer.customCodecs().encoder(new AvroJsonEncoder());
+    }
+}
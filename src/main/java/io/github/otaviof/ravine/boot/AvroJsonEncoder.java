@@ -0,0 +1,54 @@
+package io.github.otaviof.ravine.boot;
+
+import io.github.otaviof.ravine.kafka.AvroJsonWriter;
+import java.io.IOException;
+import java.util.Map;
+import org.apache.avro.generic.GenericRecord;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive counterpart of AvroJsonHttpMessageConverter, writes Avro records as JSON directly into
+ * a data buffer.
+ */
+public class AvroJsonEncoder extends AbstractEncoder<GenericRecord> {
+    public AvroJsonEncoder() {
+        super(MimeTypeUtils.ALL);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return GenericRecord.class.isAssignableFrom(elementType.toClass())
+                && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(
+            Publisher<? extends GenericRecord> inputStream,
+            DataBufferFactory bufferFactory,
+            ResolvableType elementType,
+            MimeType mimeType,
+            Map<String, Object> hints) {
+        return Flux.from(inputStream).map(record -> encode(record, bufferFactory));
+    }
+
+    private DataBuffer encode(GenericRecord record, DataBufferFactory bufferFactory) {
+        var buffer = bufferFactory.allocateBuffer();
+
+        try (var out = buffer.asOutputStream()) {
+            AvroJsonWriter.write(record, out);
+            return buffer;
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new EncodingException("Error rendering Avro record as JSON", e);
+        }
+    }
+}
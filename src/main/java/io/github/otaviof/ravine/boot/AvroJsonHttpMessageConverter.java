@@ -0,0 +1,42 @@
+package io.github.otaviof.ravine.boot;
+
+import io.github.otaviof.ravine.kafka.AvroJsonWriter;
+import java.io.IOException;
+import org.apache.avro.generic.GenericRecord;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes Avro records as JSON straight into the servlet response output stream, regardless of the
+ * route content-type. Reading records is not supported.
+ */
+public class AvroJsonHttpMessageConverter extends AbstractHttpMessageConverter<GenericRecord> {
+    public AvroJsonHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return GenericRecord.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected GenericRecord readInternal(
+            Class<? extends GenericRecord> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Avro records are not readable", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(GenericRecord record, HttpOutputMessage outputMessage) throws
+            IOException {
+        AvroJsonWriter.write(record, outputMessage.getBody());
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.otaviof.ravine.boot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Creates a Reactor Netty web-server factory when running as reactive web application. Without it,
+ * Spring Boot would pick embedded Tomcat, since it's present in classpath for the servlet mode.
+ */
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Configuration
+@Slf4j
+public class ReactiveWebServer {
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        log.info("Using Reactor Netty as reactive web-server.");
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.otaviof.ravine.boot;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Plugs a virtual-thread per task executor into embedded Tomcat connector, therefore requests are
+ * handled by virtual threads instead of a fixed worker pool. Requires Java 21 or newer at runtime,
+ * the executor is looked up via reflection since the project targets Java 11.
+ */
+@ConditionalOnProperty(value = "ravine.executor.virtual-threads", havingValue = "true")
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Configuration
+@Slf4j
+public class VirtualThreads {
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadsCustomizer() {
+        var executor = newVirtualThreadPerTaskExecutor();
+
+        log.info("Handling requests on virtual threads!");
+        return factory -> factory.addConnectorCustomizers(
+                connector -> connector.getProtocolHandler().setExecutor(executor));
+    }
+
+    /**
+     * Instantiate virtual-thread per task executor.
+     *
+     * @return ExecutorService;
+     */
+    private ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            var method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            var msg = String.format("Virtual threads are not available on Java '%s'",
+                    System.getProperty("java.version"));
+            log.error(msg);
+            throw new IllegalStateException(msg, e);
+        }
+    }
+}
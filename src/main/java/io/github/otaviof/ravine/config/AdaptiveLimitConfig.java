@@ -0,0 +1,30 @@
+package io.github.otaviof.ravine.config;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for adaptive concurrency limit of a route, the amount of requests in flight is adjusted
+ * within boundaries according to observed round-trip time.
+ */
+@Getter
+@Setter
+public class AdaptiveLimitConfig {
+    private boolean enabled = false;
+
+    @Min(1)
+    private int initialLimit = 20;
+
+    @Min(1)
+    private int minLimit = 1;
+
+    @Min(1)
+    private int maxLimit = 1000;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double smoothing = 1.0;
+}
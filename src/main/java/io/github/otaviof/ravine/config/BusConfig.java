@@ -0,0 +1,18 @@
+package io.github.otaviof.ravine.config;
+
+import javax.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the bus dispatching response events from consumers to pending requests.
+ */
+@Getter
+@Setter
+public class BusConfig {
+    @Min(2)
+    private int capacity = 8192;
+
+    @Min(1)
+    private int completionThreads = Runtime.getRuntime().availableProcessors();
+}
@@ -1,11 +1,26 @@
 package io.github.otaviof.ravine.config;
 
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.Min;
 import lombok.Getter;
 import lombok.Setter;
 
+/**
+ * Route response cache settings, responses for GET requests are kept for a time-to-live, bounded
+ * by amount of entries and total bytes.
+ */
 @Getter
 @Setter
 public class CacheConfig {
-    private int maximumSize = 2000;
-    private int expireMs = 15000;
+    @Min(1)
+    private long ttlMs = 60000;
+
+    @Min(1)
+    private long maxEntries = 1000;
+
+    @Min(1)
+    private long maxBytes = 16 * 1024 * 1024;
+
+    private List<String> keys = new ArrayList<>();
 }
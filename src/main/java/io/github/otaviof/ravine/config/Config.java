@@ -21,11 +21,20 @@ import org.springframework.validation.annotation.Validated;
 @Getter
 @Setter
 public class Config {
+    @NotNull
+    private InstanceConfig instance = new InstanceConfig();
+
     @NotNull
     private StartupConfig startup = new StartupConfig();
 
     @NotNull
-    private CacheConfig cache = new CacheConfig();
+    private TimerConfig timer = new TimerConfig();
+
+    @NotNull
+    private BusConfig bus = new BusConfig();
+
+    @NotNull
+    private ExecutorConfig executor = new ExecutorConfig();
 
     @NotNull
     private KafkaConfig kafka = new KafkaConfig();
@@ -68,6 +77,37 @@ public class Config {
     public Map<String, KafkaRouteConfig> getResponseKafkaRouteConfigs() {
         return routes.stream()
                 .filter(r -> r.getResponse() != null)
-                .collect(Collectors.toMap(RouteConfig::getName, RouteConfig::getResponse));
+                .collect(Collectors.toMap(RouteConfig::getName, this::getReplyKafkaRouteConfig));
+    }
+
+    /**
+     * Return response KafkaRouteConfig of a route as consumed by this instance. When reply topic is
+     * per instance, topic name is suffixed with instance id, which must be configured, so the same
+     * topic is used again after restarts. When partitions are informed, only
+     * the share of this instance is kept, according to instance ordinal and replicas.
+     *
+     * @param route route configuration;
+     * @return KafkaRouteConfig, or null when route has no response;
+     * @throws IllegalStateException when reply topic is per instance and instance id is not
+     *         configured, or on partitions share errors;
+     */
+    public KafkaRouteConfig getReplyKafkaRouteConfig(RouteConfig route) {
+        var reply = route.getResponse();
+
+        if (reply == null) {
+            return null;
+        }
+        if (reply.isReplyTopicPerInstance()) {
+            if (!instance.isIdConfigured()) {
+                throw new IllegalStateException(
+                        "ravine.instance.id must be configured with a stable id, when reply topic "
+                                + "is per instance");
+            }
+            reply = reply.withTopic(String.format("%s-%s", reply.getTopic(), instance.getId()));
+        }
+        if (!reply.getPartitions().isEmpty() && instance.getReplicas() > 1) {
+            reply = reply.withPartitions(instance.share(reply.getPartitions()));
+        }
+        return reply;
     }
 }
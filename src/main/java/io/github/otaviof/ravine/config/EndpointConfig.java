@@ -20,4 +20,6 @@ public class EndpointConfig {
     private List<String> methods = Collections.singletonList("post");
 
     private ResponseConfig response;
+
+    private SingleFlightConfig singleFlight = new SingleFlightConfig();
 }
@@ -0,0 +1,23 @@
+package io.github.otaviof.ravine.config;
+
+import javax.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for request execution, applied on embedded web-server.
+ */
+@Getter
+@Setter
+public class ExecutorConfig {
+    private boolean virtualThreads = false;
+
+    @Min(1)
+    private int maxBodyBytes = 1024 * 1024;
+
+    @Min(0)
+    private int maxInFlight = 0;
+
+    @Min(0)
+    private int retryAfterSeconds = 1;
+}
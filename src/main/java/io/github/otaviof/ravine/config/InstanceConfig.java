@@ -0,0 +1,76 @@
+package io.github.otaviof.ravine.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.lang3.RandomStringUtils;
+
+/**
+ * Identifies this Ravine instance, used to derive per-instance resources. Ordinal and replicas
+ * describe the position of this instance among its peers, sharing the same routes configuration.
+ * The default id is not stable across restarts, therefore per-instance resources that outlive the
+ * instance require the id to be configured.
+ */
+@Getter
+@Setter
+public class InstanceConfig {
+    @NotEmpty
+    @Pattern(regexp = "^[a-zA-Z0-9._-]+$")
+    private String id = System.getenv().getOrDefault(
+            "HOSTNAME", String.format("ravine-%s", RandomStringUtils.randomAlphabetic(10)));
+
+    @Setter(AccessLevel.NONE)
+    private boolean idConfigured = false;
+
+    @Min(0)
+    private Integer ordinal;
+
+    @Min(1)
+    private int replicas = 1;
+
+    /**
+     * Set instance id, configured ids are considered stable.
+     *
+     * @param id instance id;
+     */
+    public void setId(String id) {
+        this.id = id;
+        this.idConfigured = true;
+    }
+
+    /**
+     * Share of informed partitions owned by this instance, partitions are distributed among
+     * replicas in round-robin, following ordinal.
+     *
+     * @param partitions partitions shared by all replicas;
+     * @return List with partitions of this instance;
+     * @throws IllegalStateException when ordinal is not informed or out of bounds, or when there
+     *         are not enough partitions for all replicas;
+     */
+    public List<Integer> share(List<Integer> partitions) {
+        if (replicas == 1) {
+            return partitions;
+        }
+        if (ordinal == null || ordinal >= replicas) {
+            throw new IllegalStateException(String.format(
+                    "instance ordinal '%s' must be informed, and lower than replicas '%d'",
+                    ordinal, replicas));
+        }
+        if (partitions.size() < replicas) {
+            throw new IllegalStateException(String.format(
+                    "'%d' partitions are not enough to share among '%d' replicas",
+                    partitions.size(), replicas));
+        }
+
+        var share = new ArrayList<Integer>();
+        for (var i = ordinal; i < partitions.size(); i += replicas) {
+            share.add(partitions.get(i));
+        }
+        return share;
+    }
+}
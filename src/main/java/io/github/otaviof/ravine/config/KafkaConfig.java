@@ -2,6 +2,7 @@ package io.github.otaviof.ravine.config;
 
 import java.util.HashMap;
 import java.util.Map;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
 import lombok.Getter;
 import lombok.Setter;
@@ -19,4 +20,7 @@ public class KafkaConfig {
     private String brokers;
 
     private Map<String, String> properties = new HashMap<>();
+
+    @Min(1)
+    private int producerPoolSize = 1;
 }
@@ -1,9 +1,12 @@
 package io.github.otaviof.ravine.config;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import lombok.Getter;
 import lombok.Setter;
@@ -20,7 +23,7 @@ public class KafkaRouteConfig {
     private String topic;
 
     @NotEmpty
-    private String valueSerde = "io.confluent.kafka.streams.serdes.avro.GenericAvroSerde";
+    private String valueSerde = "io.github.otaviof.ravine.kafka.CompiledAvroSerde";
 
     @Pattern(regexp = "^(-1|0|1|all)$")
     private String acks = "all";
@@ -28,6 +31,12 @@ public class KafkaRouteConfig {
     @Min(1)
     private int timeoutMs = 1000;
 
+    @Min(0)
+    private int maxInFlight = 0;
+
+    @NotNull
+    private AdaptiveLimitConfig adaptiveLimit = new AdaptiveLimitConfig();
+
     @NotEmpty
     private String clientId = String.format("ravine-%s", RandomStringUtils.randomAlphabetic(10));
 
@@ -35,4 +44,79 @@ public class KafkaRouteConfig {
     private String groupId = String.format("ravine-%s", RandomStringUtils.randomAlphabetic(10));
 
     private Map<String, String> properties = new HashMap<>();
+
+    private boolean fireAndForget = false;
+
+    private boolean dedicatedProducer = false;
+
+    private List<Integer> partitions = new ArrayList<>();
+
+    @Pattern(regexp = "^(streams|poll)$")
+    private String consumerEngine = "streams";
+
+    @Min(0)
+    private int commitIntervalMs = 5000;
+
+    private boolean replyTopicPerInstance = false;
+
+    @Min(1)
+    private int replyTopicPartitions = 1;
+
+    @Min(1)
+    private short replyTopicReplicationFactor = 1;
+
+    /**
+     * Copy this configuration using a different topic.
+     *
+     * @param topic topic name;
+     * @return KafkaRouteConfig copy;
+     */
+    public KafkaRouteConfig withTopic(String topic) {
+        var copy = copy();
+
+        copy.setTopic(topic);
+        return copy;
+    }
+
+    /**
+     * Copy this configuration using a different list of partitions.
+     *
+     * @param partitions partitions;
+     * @return KafkaRouteConfig copy;
+     */
+    public KafkaRouteConfig withPartitions(List<Integer> partitions) {
+        var copy = copy();
+
+        copy.setPartitions(partitions);
+        return copy;
+    }
+
+    /**
+     * Copy all settings.
+     *
+     * @return KafkaRouteConfig copy;
+     */
+    private KafkaRouteConfig copy() {
+        var copy = new KafkaRouteConfig();
+
+        copy.setTopic(topic);
+        copy.setValueSerde(valueSerde);
+        copy.setAcks(acks);
+        copy.setTimeoutMs(timeoutMs);
+        copy.setMaxInFlight(maxInFlight);
+        copy.setAdaptiveLimit(adaptiveLimit);
+        copy.setClientId(clientId);
+        copy.setGroupId(groupId);
+        copy.setProperties(properties);
+        copy.setFireAndForget(fireAndForget);
+        copy.setDedicatedProducer(dedicatedProducer);
+        copy.setPartitions(partitions);
+        copy.setConsumerEngine(consumerEngine);
+        copy.setCommitIntervalMs(commitIntervalMs);
+        copy.setReplyTopicPerInstance(replyTopicPerInstance);
+        copy.setReplyTopicPartitions(replyTopicPartitions);
+        copy.setReplyTopicReplicationFactor(replyTopicReplicationFactor);
+
+        return copy;
+    }
 }
@@ -15,4 +15,6 @@ public class ResponseConfig {
     private String contentType = "application/json";
 
     private String body = "";
+
+    private boolean passthrough = false;
 }
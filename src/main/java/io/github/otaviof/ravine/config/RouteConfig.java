@@ -23,4 +23,6 @@ public class RouteConfig {
     private KafkaRouteConfig request;
 
     private KafkaRouteConfig response;
+
+    private CacheConfig cache;
 }
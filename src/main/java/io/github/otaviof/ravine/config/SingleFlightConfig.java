@@ -0,0 +1,17 @@
+package io.github.otaviof.ravine.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for coalescing concurrent identical GET requests on a route into a single Kafka request.
+ */
+@Getter
+@Setter
+public class SingleFlightConfig {
+    private boolean enabled = false;
+
+    private List<String> keys = new ArrayList<>();
+}
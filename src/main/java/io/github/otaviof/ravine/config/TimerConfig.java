@@ -0,0 +1,18 @@
+package io.github.otaviof.ravine.config;
+
+import javax.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the timer enforcing response timeouts of pending requests.
+ */
+@Getter
+@Setter
+public class TimerConfig {
+    @Min(1)
+    private int tickMs = 10;
+
+    @Min(1)
+    private int ticksPerWheel = 512;
+}
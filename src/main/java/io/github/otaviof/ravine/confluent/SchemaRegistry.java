@@ -86,6 +86,65 @@ public class SchemaRegistry {
         return Collections.max(client.getAllVersions(subjectName));
     }
 
+    /**
+     * Register schema under subject, returning its id. Registering is idempotent, when schema is
+     * already registered the existing id is returned.
+     *
+     * @param subjectName subject name;
+     * @param schema avro schema;
+     * @return int schema id;
+     * @throws SchemaRegistryException on api communication;
+     */
+    public int register(String subjectName, Schema schema) throws SchemaRegistryException {
+        log.info("Registering schema '{}' on subject '{}'", schema.getFullName(), subjectName);
+
+        try {
+            return client.register(subjectName, schema);
+        } catch (IOException | RestClientException e) {
+            log.error("Error registering schema on subject '{}': '{}'", subjectName,
+                    e.getMessage());
+            throw new SchemaRegistryException("Error registering schema on Schema-Registry");
+        }
+    }
+
+    /**
+     * Look up the id of a schema already registered under subject, without registering it.
+     *
+     * @param subjectName subject name;
+     * @param schema avro schema;
+     * @return int schema id;
+     * @throws SchemaRegistryException on schema not registered, or api communication;
+     */
+    public int getId(String subjectName, Schema schema) throws SchemaRegistryException {
+        log.info("Looking up schema '{}' on subject '{}'", schema.getFullName(), subjectName);
+
+        try {
+            return client.getId(subjectName, schema);
+        } catch (IOException | RestClientException e) {
+            log.error("Error looking up schema on subject '{}': '{}'", subjectName,
+                    e.getMessage());
+            throw new SchemaRegistryException("Error looking up schema on Schema-Registry");
+        }
+    }
+
+    /**
+     * Get schema by its global id, as informed on wire-format header. Schemas are cached by the
+     * client, so only the first lookup of a given id reaches Schema-Registry.
+     *
+     * @param id schema id;
+     * @return avro schema;
+     * @throws SchemaRegistryException on api communication;
+     */
+    public Schema getById(int id) throws SchemaRegistryException {
+        try {
+            return client.getById(id);
+        } catch (IOException | RestClientException e) {
+            log.error("Error on reading schema id '{}': '{}'", id, e.getMessage());
+            throw new SchemaRegistryException(
+                    String.format("Error reading schema id '%d' from Schema-Registry", id));
+        }
+    }
+
     /**
      * Download a schema using name and version. When version is zero it gets latest version of
      * schema.
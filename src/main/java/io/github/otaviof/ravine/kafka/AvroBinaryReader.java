@@ -0,0 +1,185 @@
+package io.github.otaviof.ravine.kafka;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Decoder;
+
+/**
+ * Reads Avro binary into generic records, using readers compiled once per schema. The schema tree
+ * is resolved upfront, into a tree of specialized readers, so decoding a record is a straight
+ * sequence of reads, without walking the schema or dispatching on its types. Results are the same
+ * as GenericDatumReader using writer schema: strings as Utf8 (unless "avro.java.string" is set),
+ * bytes as ByteBuffer, and maps keyed by Utf8. Compiled readers are cached by schema fingerprint.
+ */
+class AvroBinaryReader {
+    private static final Map<Long, AvroBinaryReader> READERS = new ConcurrentHashMap<>();
+
+    private final Schema schema;
+    private final ValueReader root;
+
+    private AvroBinaryReader(Schema schema) {
+        this.schema = schema;
+        this.root = compile(schema, new HashMap<>());
+    }
+
+    /**
+     * Obtain compiled reader for schema. Fingerprint is taken from the complete schema definition,
+     * so schemas only differing on logical types or properties are not mixed up.
+     *
+     * @param schema Avro schema;
+     * @return AvroBinaryReader;
+     */
+    static AvroBinaryReader forSchema(Schema schema) {
+        var fingerprint = SchemaNormalization.fingerprint64(
+                schema.toString().getBytes(StandardCharsets.UTF_8));
+
+        return READERS.computeIfAbsent(fingerprint, f -> new AvroBinaryReader(schema));
+    }
+
+    Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Read a record from decoder.
+     *
+     * @param in binary decoder;
+     * @return GenericRecord;
+     * @throws IOException on reading decoder;
+     */
+    GenericRecord read(Decoder in) throws IOException {
+        return (GenericRecord) root.read(in);
+    }
+
+    /**
+     * Compile schema into value reader, records are registered before their fields are compiled,
+     * so recursive schemas are supported.
+     *
+     * @param s schema;
+     * @param records compiled records by full name;
+     * @return ValueReader;
+     */
+    private static ValueReader compile(Schema s, Map<String, RecordReader> records) {
+        switch (s.getType()) {
+            case NULL:
+                return in -> {
+                    in.readNull();
+                    return null;
+                };
+            case BOOLEAN:
+                return Decoder::readBoolean;
+            case INT:
+                return Decoder::readInt;
+            case LONG:
+                return Decoder::readLong;
+            case FLOAT:
+                return Decoder::readFloat;
+            case DOUBLE:
+                return Decoder::readDouble;
+            case STRING:
+                var stringType = s.getProp(GenericData.STRING_PROP);
+                if (GenericData.StringType.String.name().equals(stringType)) {
+                    return Decoder::readString;
+                }
+                return in -> in.readString(null);
+            case BYTES:
+                return in -> in.readBytes(null);
+            case FIXED:
+                var size = s.getFixedSize();
+                return in -> {
+                    var bytes = new byte[size];
+                    in.readFixed(bytes);
+                    return new GenericData.Fixed(s, bytes);
+                };
+            case ENUM:
+                var symbols = s.getEnumSymbols().stream()
+                        .map(symbol -> new GenericData.EnumSymbol(s, symbol))
+                        .toArray(GenericData.EnumSymbol[]::new);
+                return in -> symbols[in.readEnum()];
+            case ARRAY:
+                var element = compile(s.getElementType(), records);
+                return in -> {
+                    var n = in.readArrayStart();
+                    var array = new GenericData.Array<Object>((int) n, s);
+                    for (; n != 0; n = in.arrayNext()) {
+                        for (long i = 0; i < n; i++) {
+                            array.add(element.read(in));
+                        }
+                    }
+                    return array;
+                };
+            case MAP:
+                var value = compile(s.getValueType(), records);
+                return in -> {
+                    var n = in.readMapStart();
+                    var map = new HashMap<Object, Object>();
+                    for (; n != 0; n = in.mapNext()) {
+                        for (long i = 0; i < n; i++) {
+                            map.put(in.readString(null), value.read(in));
+                        }
+                    }
+                    return map;
+                };
+            case UNION:
+                var branches = s.getTypes().stream()
+                        .map(t -> compile(t, records))
+                        .toArray(ValueReader[]::new);
+                return in -> branches[in.readIndex()].read(in);
+            case RECORD:
+                var existing = records.get(s.getFullName());
+                if (existing != null) {
+                    return existing;
+                }
+                var record = new RecordReader(s);
+                records.put(s.getFullName(), record);
+                record.compileFields(records);
+                return record;
+            default:
+                throw new IllegalArgumentException("unsupported schema type: " + s.getType());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ValueReader {
+        Object read(Decoder in) throws IOException;
+    }
+
+    /**
+     * Record reader, fields are read in schema order into positional slots.
+     */
+    private static class RecordReader implements ValueReader {
+        private final Schema schema;
+        private ValueReader[] readers;
+
+        RecordReader(Schema schema) {
+            this.schema = schema;
+        }
+
+        void compileFields(Map<String, RecordReader> records) {
+            List<Schema.Field> fields = schema.getFields();
+
+            readers = new ValueReader[fields.size()];
+            for (Schema.Field field : fields) {
+                readers[field.pos()] = compile(field.schema(), records);
+            }
+        }
+
+        @Override
+        public Object read(Decoder in) throws IOException {
+            var record = new GenericData.Record(schema);
+
+            for (var i = 0; i < readers.length; i++) {
+                record.put(i, readers[i].read(in));
+            }
+            return record;
+        }
+    }
+}
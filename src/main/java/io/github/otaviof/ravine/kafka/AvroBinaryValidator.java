@@ -0,0 +1,118 @@
+package io.github.otaviof.ravine.kafka;
+
+import java.io.IOException;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+
+/**
+ * Structural validation of Avro binary payloads against a schema, values are skipped instead of
+ * decoded. Union branches and enum symbols must exist, lengths must be within payload, and the
+ * payload must be consumed entirely.
+ */
+final class AvroBinaryValidator {
+    private AvroBinaryValidator() {
+    }
+
+    /**
+     * Validate a payload against schema.
+     *
+     * @param schema Avro schema;
+     * @param in binary decoder over payload;
+     * @param length payload length;
+     * @throws ProducerGroupAvroConversionException when payload does not match schema;
+     */
+    static void validate(Schema schema, BinaryDecoder in, int length) throws
+            ProducerGroupAvroConversionException {
+        try {
+            skip(schema, in, length);
+            if (!in.isEnd()) {
+                throw new ProducerGroupAvroConversionException(
+                        "unexpected trailing bytes after record");
+            }
+        } catch (IOException | AvroRuntimeException e) {
+            throw new ProducerGroupAvroConversionException(String.format(
+                    "invalid Avro binary for '%s': %s", schema.getName(), e.getMessage()));
+        }
+    }
+
+    private static void skip(Schema s, BinaryDecoder in, int length) throws IOException {
+        switch (s.getType()) {
+            case NULL:
+                break;
+            case BOOLEAN:
+                in.readBoolean();
+                break;
+            case INT:
+                in.readInt();
+                break;
+            case LONG:
+                in.readLong();
+                break;
+            case FLOAT:
+                in.readFloat();
+                break;
+            case DOUBLE:
+                in.readDouble();
+                break;
+            case STRING:
+            case BYTES:
+                skipLength(in, length);
+                break;
+            case FIXED:
+                in.skipFixed(s.getFixedSize());
+                break;
+            case ENUM:
+                check(in.readEnum(), s.getEnumSymbols().size(), "enum symbol");
+                break;
+            case ARRAY:
+                for (var n = in.readArrayStart(); n != 0; n = in.arrayNext()) {
+                    check(n, length + 1, "array block");
+                    for (var i = 0; i < n; i++) {
+                        skip(s.getElementType(), in, length);
+                    }
+                }
+                break;
+            case MAP:
+                for (var n = in.readMapStart(); n != 0; n = in.mapNext()) {
+                    check(n, length + 1, "map block");
+                    for (var i = 0; i < n; i++) {
+                        skipLength(in, length);
+                        skip(s.getValueType(), in, length);
+                    }
+                }
+                break;
+            case UNION:
+                var index = in.readIndex();
+                check(index, s.getTypes().size(), "union branch");
+                skip(s.getTypes().get(index), in, length);
+                break;
+            case RECORD:
+                for (Schema.Field field : s.getFields()) {
+                    skip(field.schema(), in, length);
+                }
+                break;
+            default:
+                throw new IOException("unsupported schema type: " + s.getType());
+        }
+    }
+
+    /**
+     * Skip a length prefixed value, string or bytes, refusing negative or oversized lengths.
+     */
+    private static void skipLength(BinaryDecoder in, int length) throws IOException {
+        var size = in.readLong();
+
+        check(size, length + 1, "length");
+        in.skipFixed((int) size);
+    }
+
+    /**
+     * Check value is within zero and bound, exclusive.
+     */
+    private static void check(long value, long bound, String what) throws IOException {
+        if (value < 0 || value >= bound) {
+            throw new IOException(String.format("%s '%d' is out of bounds", what, value));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.otaviof.ravine.kafka;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+/**
+ * Codec for a route schema, converting JSON payloads into Confluent wire-format, and validating
+ * payloads already informed as Avro binary. The transcoder is compiled once, and is safe to share
+ * among threads, while encoder, decoder and buffers are borrowed from a bounded pool and reused on
+ * every call. The pool does not depend on thread identity, so state is reused as well when each
+ * request runs on a new virtual thread.
+ */
+class AvroCodec {
+    // buffers grown beyond this size are not returned to the pool
+    private static final int MAX_RETAINED_BYTES = 64 * 1024;
+    // amount of idle conversion states retained
+    private static final int POOL_SIZE =
+            Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private final Schema schema;
+    private final int schemaId;
+    private final JsonAvroTranscoder transcoder;
+    private final BlockingQueue<State> pool;
+
+    /**
+     * Constructor.
+     *
+     * @param schema Avro schema;
+     * @param schemaId Schema-Registry schema id;
+     */
+    AvroCodec(Schema schema, int schemaId) {
+        this.schema = schema;
+        this.schemaId = schemaId;
+        this.transcoder = new JsonAvroTranscoder(schema);
+        this.pool = new ArrayBlockingQueue<>(POOL_SIZE);
+    }
+
+    Schema getSchema() {
+        return schema;
+    }
+
+    int getSchemaId() {
+        return schemaId;
+    }
+
+    /**
+     * Convert a JSON payload into Avro binary, preceded by wire-format header.
+     *
+     * @param payload JSON payload bytes;
+     * @return array of bytes in wire-format;
+     * @throws ProducerGroupAvroConversionException on payload not matching schema;
+     * @throws IOException on writing encoder;
+     */
+    byte[] jsonToWireFormat(byte[] payload) throws
+            ProducerGroupAvroConversionException, IOException {
+        var s = borrow();
+        var output = s.output;
+
+        try {
+            output.reset();
+            AvroWireFormat.writeHeader(output, schemaId);
+            s.encoder = EncoderFactory.get().binaryEncoder(output, s.encoder);
+            transcoder.transcode(payload, s.encoder);
+            s.encoder.flush();
+
+            return output.toByteArray();
+        } catch (ProducerGroupAvroConversionException | IOException | RuntimeException e) {
+            // encoder still buffers fields written before the failure, it must not be reused
+            // output is reset when borrowed again, so its size is still checked below
+            s.encoder = null;
+            throw e;
+        } finally {
+            if (output.size() > MAX_RETAINED_BYTES) {
+                s.output = new ByteArrayOutputStream();
+            }
+            pool.offer(s);
+        }
+    }
+
+    /**
+     * Validate a payload in Avro binary, without header, and prefix it with wire-format header.
+     *
+     * @param payload Avro binary payload;
+     * @return array of bytes in wire-format;
+     * @throws ProducerGroupAvroConversionException on payload not matching schema;
+     */
+    byte[] binaryToWireFormat(byte[] payload) throws ProducerGroupAvroConversionException {
+        validate(payload, 0);
+
+        return ByteBuffer.allocate(AvroWireFormat.HEADER_SIZE + payload.length)
+                .put(AvroWireFormat.MAGIC_BYTE)
+                .putInt(schemaId)
+                .put(payload)
+                .array();
+    }
+
+    /**
+     * Validate a payload already in wire-format, header must carry the schema id registered for
+     * route, and the same payload instance is returned.
+     *
+     * @param payload wire-format payload;
+     * @return the same array of bytes;
+     * @throws ProducerGroupAvroConversionException on header or payload not matching schema;
+     */
+    byte[] validateWireFormat(byte[] payload) throws ProducerGroupAvroConversionException {
+        if (payload.length < AvroWireFormat.HEADER_SIZE) {
+            throw new ProducerGroupAvroConversionException(String.format(
+                    "payload of '%d' bytes is shorter than wire-format header", payload.length));
+        }
+        if (payload[0] != AvroWireFormat.MAGIC_BYTE) {
+            throw new ProducerGroupAvroConversionException(String.format(
+                    "unknown wire-format magic byte '%d'", payload[0]));
+        }
+
+        var id = ByteBuffer.wrap(payload, 1, 4).getInt();
+        if (id != schemaId) {
+            throw new ProducerGroupAvroConversionException(String.format(
+                    "schema id '%d' does not match route schema id '%d'", id, schemaId));
+        }
+
+        validate(payload, AvroWireFormat.HEADER_SIZE);
+        return payload;
+    }
+
+    /**
+     * Structural validation of Avro binary payload, from offset until the end.
+     *
+     * @param payload array of bytes;
+     * @param offset where Avro binary starts;
+     * @throws ProducerGroupAvroConversionException on payload not matching schema;
+     */
+    private void validate(byte[] payload, int offset) throws
+            ProducerGroupAvroConversionException {
+        var s = borrow();
+        var length = payload.length - offset;
+
+        try {
+            s.decoder = DecoderFactory.get().binaryDecoder(payload, offset, length, s.decoder);
+            AvroBinaryValidator.validate(schema, s.decoder, length);
+        } finally {
+            pool.offer(s);
+        }
+    }
+
+    /**
+     * Take an idle conversion state from pool, or create a new one when pool is empty. States are
+     * given back with offer, and discarded when pool is full.
+     *
+     * @return State;
+     */
+    private State borrow() {
+        var s = pool.poll();
+        return s != null ? s : new State();
+    }
+
+    /**
+     * Conversion state, used by one call at a time.
+     */
+    private static class State {
+        private ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private BinaryEncoder encoder;
+        private BinaryDecoder decoder;
+    }
+}
@@ -6,9 +6,11 @@ import static org.apache.kafka.streams.KafkaStreams.State.RUNNING;
 import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
 import io.github.otaviof.ravine.config.KafkaConfig;
 import io.github.otaviof.ravine.config.KafkaRouteConfig;
+import io.github.otaviof.ravine.router.EventSink;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.kafka.streams.TracingKafkaClientSupplier;
 import java.util.Properties;
+import java.util.function.Predicate;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -19,16 +21,15 @@ import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
 import org.springframework.boot.actuate.health.AbstractHealthIndicator;
 import org.springframework.boot.actuate.health.Health.Builder;
-import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * Wrapper around Kafka Streams to create a generic Avro consumer, using Runnable approach. This
  * instance also exposes the stream state and a shutdown approach.
  */
 @Slf4j
-public class AvroConsumer extends AbstractHealthIndicator {
+public class AvroConsumer extends AbstractHealthIndicator implements ResponseConsumer {
     private final Tracer tracer;
-    private final ApplicationEventPublisher publisher;
+    private final RecordHandler handler;
     private final KafkaConfig kafkaConfig;
     private final KafkaRouteConfig routeConfig;
 
@@ -38,13 +39,26 @@ public class AvroConsumer extends AbstractHealthIndicator {
     @Getter
     private KafkaStreams streams;
 
+    /**
+     * Constructor.
+     *
+     * @param tracer tracer instance;
+     * @param sink event sink, receiving accepted records;
+     * @param accept predicate on ravine-key, only accepted records are deserialized and offered;
+     * @param raw predicate on ravine-key, records waiting for raw response are not deserialized;
+     * @param kafkaConfig global kafka configuration;
+     * @param routeConfig kafka route configuration;
+     */
     public AvroConsumer(
             Tracer tracer,
-            ApplicationEventPublisher publisher,
+            EventSink sink,
+            Predicate<String> accept,
+            Predicate<String> raw,
             KafkaConfig kafkaConfig,
             KafkaRouteConfig routeConfig) {
         this.tracer = tracer;
-        this.publisher = publisher;
+        this.handler = new RecordHandler(tracer, sink, accept, raw,
+                RecordHandler.valueDeserializer(kafkaConfig, routeConfig));
         this.kafkaConfig = kafkaConfig;
         this.routeConfig = routeConfig;
         this.topic = routeConfig.getTopic();
@@ -95,18 +109,39 @@ public class AvroConsumer extends AbstractHealthIndicator {
         var supplier = new TracingKafkaClientSupplier(tracer);
 
         log.info("Starting Kafka stream consumer processor on topic '{}'...", topic);
-        topology.addSource("SOURCE", topic)
-                .addProcessor("RavineStreamProcessor", () -> new StreamProcessor(tracer, publisher),
+        // values are kept as bytes, deserialized only when accepted by record handler
+        topology.addSource("SOURCE", Serdes.String().deserializer(),
+                Serdes.ByteArray().deserializer(), topic)
+                .addProcessor("RavineStreamProcessor", () -> new StreamProcessor(handler, routeConfig.getTimeoutMs()),
                         "SOURCE");
 
         streams = new KafkaStreams(topology, consumerProperties(), supplier);
     }
 
+    /**
+     * Start Kafka Streams thread.
+     */
+    @Override
+    public void run() {
+        log.info("Starting consumer...");
+        streams.start();
+    }
+
+    /**
+     * Stop Kafka Streams threads.
+     */
+    @Override
+    public void close() {
+        log.info("Closing consumer on topic '{}'...", topic);
+        streams.close();
+    }
+
     /**
      * Check Kafka Streams state interface to assure is running.
      *
      * @return boolean;
      */
+    @Override
     public boolean isRunning() {
         log.info("Consumer state on topic '{}': {}", topic, streams.state());
         return streams.state() == RUNNING;
@@ -0,0 +1,229 @@
+package io.github.otaviof.ravine.kafka;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+
+/**
+ * Renders Avro records as JSON, streaming directly to an output stream. Writers are compiled once
+ * per schema. Unions are rendered as their natural value, bytes and fixed as ISO-8859-1 strings (as
+ * per Avro JSON encoding), and decimals as numbers. Generator buffers are recycled by Jackson.
+ */
+public class AvroJsonWriter {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final Map<Schema, AvroJsonWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private final ValueWriter root;
+
+    private AvroJsonWriter(Schema schema) {
+        this.root = compile(schema, new HashMap<>());
+    }
+
+    /**
+     * Obtain the compiled writer for schema.
+     *
+     * @param schema Avro schema;
+     * @return AvroJsonWriter;
+     */
+    public static AvroJsonWriter forSchema(Schema schema) {
+        return WRITERS.computeIfAbsent(schema, AvroJsonWriter::new);
+    }
+
+    /**
+     * Render record as JSON on output stream, stream is flushed but not closed.
+     *
+     * @param record Avro record;
+     * @param out output stream;
+     * @throws IOException on writing;
+     */
+    public static void write(GenericRecord record, OutputStream out) throws IOException {
+        try (var gen = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            forSchema(record.getSchema()).write(record, gen);
+        }
+    }
+
+    /**
+     * Render value with compiled writer.
+     *
+     * @param value Avro value;
+     * @param gen JSON generator;
+     * @throws IOException on writing;
+     */
+    public void write(Object value, JsonGenerator gen) throws IOException {
+        root.write(value, gen);
+    }
+
+    /**
+     * Compile schema into value writer, records are registered before their fields are compiled,
+     * so recursive schemas are supported.
+     *
+     * @param s schema;
+     * @param records compiled records by full name;
+     * @return ValueWriter;
+     */
+    private static ValueWriter compile(Schema s, Map<String, RecordWriter> records) {
+        switch (s.getType()) {
+            case NULL:
+                return (v, gen) -> gen.writeNull();
+            case BOOLEAN:
+                return (v, gen) -> gen.writeBoolean((Boolean) v);
+            case INT:
+                return (v, gen) -> gen.writeNumber((Integer) v);
+            case LONG:
+                return (v, gen) -> gen.writeNumber((Long) v);
+            case FLOAT:
+                return (v, gen) -> gen.writeNumber((Float) v);
+            case DOUBLE:
+                return (v, gen) -> gen.writeNumber((Double) v);
+            case STRING:
+                return AvroJsonWriter::writeString;
+            case ENUM:
+                return (v, gen) -> gen.writeString(v.toString());
+            case BYTES:
+                return bytesWriter(s, v -> {
+                    var buffer = ((ByteBuffer) v).duplicate();
+                    var bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    return bytes;
+                });
+            case FIXED:
+                return bytesWriter(s, v -> ((GenericFixed) v).bytes());
+            case ARRAY:
+                var element = compile(s.getElementType(), records);
+                return (v, gen) -> {
+                    gen.writeStartArray();
+                    for (Object item : (Collection<?>) v) {
+                        element.write(item, gen);
+                    }
+                    gen.writeEndArray();
+                };
+            case MAP:
+                var value = compile(s.getValueType(), records);
+                return (v, gen) -> {
+                    gen.writeStartObject();
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) v).entrySet()) {
+                        gen.writeFieldName(entry.getKey().toString());
+                        value.write(entry.getValue(), gen);
+                    }
+                    gen.writeEndObject();
+                };
+            case UNION:
+                var branches = s.getTypes().stream()
+                        .map(t -> compile(t, records))
+                        .collect(Collectors.toList());
+                return (v, gen) -> branches
+                        .get(GenericData.get().resolveUnion(s, v))
+                        .write(v, gen);
+            case RECORD:
+                var existing = records.get(s.getFullName());
+                if (existing != null) {
+                    return existing;
+                }
+                var record = new RecordWriter(s);
+                records.put(s.getFullName(), record);
+                record.compileFields(records);
+                return record;
+            default:
+                throw new IllegalArgumentException("unsupported schema type: " + s.getType());
+        }
+    }
+
+    /**
+     * Write string, Avro's UTF-8 representation is written as is, without decoding.
+     *
+     * @param v string value;
+     * @param gen JSON generator;
+     * @throws IOException on writing;
+     */
+    private static void writeString(Object v, JsonGenerator gen) throws IOException {
+        if (v instanceof Utf8) {
+            var utf8 = (Utf8) v;
+            gen.writeUTF8String(utf8.getBytes(), 0, utf8.getByteLength());
+            return;
+        }
+        gen.writeString(v.toString());
+    }
+
+    /**
+     * Writer for bytes and fixed, rendered as number when decimal, or ISO-8859-1 string otherwise.
+     *
+     * @param s bytes or fixed schema;
+     * @param extract function to extract bytes from value;
+     * @return ValueWriter;
+     */
+    private static ValueWriter bytesWriter(Schema s, BytesExtractor extract) {
+        if (s.getLogicalType() instanceof LogicalTypes.Decimal) {
+            var scale = ((LogicalTypes.Decimal) s.getLogicalType()).getScale();
+            return (v, gen) -> gen.writeNumber(
+                    new BigDecimal(new BigInteger(extract.bytes(v)), scale));
+        }
+        return (v, gen) -> gen.writeString(
+                new String(extract.bytes(v), StandardCharsets.ISO_8859_1));
+    }
+
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(Object value, JsonGenerator gen) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface BytesExtractor {
+        byte[] bytes(Object value);
+    }
+
+    /**
+     * Record writer, field names are rendered upfront.
+     */
+    private static class RecordWriter implements ValueWriter {
+        private final Schema schema;
+        private SerializedString[] names;
+        private ValueWriter[] writers;
+
+        RecordWriter(Schema schema) {
+            this.schema = schema;
+        }
+
+        void compileFields(Map<String, RecordWriter> records) {
+            List<Schema.Field> fields = schema.getFields();
+
+            names = new SerializedString[fields.size()];
+            writers = new ValueWriter[fields.size()];
+            for (Schema.Field field : fields) {
+                names[field.pos()] = new SerializedString(field.name());
+                writers[field.pos()] = compile(field.schema(), records);
+            }
+        }
+
+        @Override
+        public void write(Object value, JsonGenerator gen) throws IOException {
+            var record = (GenericRecord) value;
+
+            gen.writeStartObject();
+            for (var i = 0; i < names.length; i++) {
+                gen.writeFieldName(names[i]);
+                writers[i].write(record.get(i), gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -1,63 +1,90 @@
 package io.github.otaviof.ravine.kafka;
 
-import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
 import io.github.otaviof.ravine.config.KafkaConfig;
 import io.github.otaviof.ravine.config.KafkaRouteConfig;
 import io.opentracing.Tracer;
 import io.opentracing.contrib.kafka.TracingKafkaProducer;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
-import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 
 /**
- * Avro producer representation, handles configuration and send methods.
+ * Avro producer representation, handles configuration and send methods. Payloads are informed
+ * already serialized in Confluent wire-format, and sent as is.
  */
 @Slf4j
 public class AvroProducer {
     static final String RAVINE_KEY = "ravine-key";
+    static final String RAVINE_REPLY_PARTITION = "ravine-reply-partition";
+    static final String RAVINE_REPLY_TO = "ravine-reply-to";
 
-    private final KafkaConfig kafkaConfig;
     private final KafkaRouteConfig routeConfig;
+    private final String replyTo;
+    private final List<Integer> replyPartitions;
+    private final AtomicInteger replyPartitionIndex;
 
-    private final TracingKafkaProducer<String, GenericRecord> producer;
+    private final TracingKafkaProducer<String, byte[]> producer;
 
+    /**
+     * Constructor, on top of a Kafka producer which may be shared with other routes, and informing
+     * response topic settings as consumed by this instance. When reply topic is per instance, it's
+     * advertised on every record as reply-to, and when partitions are assigned, one of them is
+     * advertised as reply partition.
+     *
+     * @param tracer tracer instance;
+     * @param name span name;
+     * @param kafkaProducer kafka producer instance;
+     * @param routeConfig request kafka route configuration;
+     * @param replyConfig response kafka route configuration, or null;
+     */
     public AvroProducer(
-            Tracer tracer, String name, KafkaConfig kafkaConfig, KafkaRouteConfig routeConfig) {
-        this.kafkaConfig = kafkaConfig;
+            Tracer tracer,
+            String name,
+            Producer<String, byte[]> kafkaProducer,
+            KafkaRouteConfig routeConfig,
+            KafkaRouteConfig replyConfig) {
         this.routeConfig = routeConfig;
+        this.replyTo = replyConfig != null && replyConfig.isReplyTopicPerInstance() ?
+                replyConfig.getTopic() : null;
+        this.replyPartitions = replyConfig != null ?
+                replyConfig.getPartitions() : Collections.emptyList();
+        this.replyPartitionIndex = new AtomicInteger();
 
         BiFunction<String, ProducerRecord, String> spanNameProvider = (operation, record) -> name;
 
         log.info("Creating a producer on topic '{}'", routeConfig.getTopic());
-        var kafkaProducer = new KafkaProducer<String, GenericRecord>(producerProperties());
         this.producer = new TracingKafkaProducer<>(kafkaProducer, tracer, spanNameProvider);
     }
 
     /**
-     * Prepare producer properties.
+     * Prepare producer properties. Routes resulting in equal properties are able to share the same
+     * Kafka producer.
      *
+     * @param kafkaConfig global kafka configuration;
+     * @param routeConfig request kafka route configuration;
      * @return Properties instance;
      */
-    private Properties producerProperties() {
+    public static Properties producerProperties(
+            KafkaConfig kafkaConfig, KafkaRouteConfig routeConfig) {
         var p = new Properties();
 
         log.info("Kafka bootstrap servers '{}'", kafkaConfig.getBrokers());
         p.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaConfig.getBrokers());
 
-        log.info("Schema-Registry URL '{}'", kafkaConfig.getSchemaRegistryUrl());
-        p.put(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG,
-                kafkaConfig.getSchemaRegistryUrl());
-
         p.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
-        p.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, routeConfig.getValueSerde());
+        p.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
 
         log.info("Producer blocking timeout is '{}' ms, and '{}' set as acknowledge mode.",
                 routeConfig.getTimeoutMs(), routeConfig.getAcks());
@@ -71,31 +98,62 @@ public class AvroProducer {
     }
 
     /**
-     * Produce a message on pre-configured topic, using a synchronous approach.
+     * Select reply partition in a round-robin fashion, spreading responses over the partitions
+     * assigned to this instance.
+     *
+     * @return String with partition number;
+     */
+    private String nextReplyPartition() {
+        var index = Math.floorMod(replyPartitionIndex.getAndIncrement(), replyPartitions.size());
+        return String.valueOf(replyPartitions.get(index));
+    }
+
+    /**
+     * Produce a message on pre-configured topic, asynchronously. The record is handed over to the
+     * producer buffer, and the returned future is completed when the broker acknowledges it, so
+     * callers are able to overlap the acknowledge with other work, and concurrent requests are
+     * batched together.
      *
      * @param k key;
-     * @param v value;
+     * @param v value in Confluent wire-format;
      * @param headers additional kafka record headers;
-     * @throws AvroProducerException on producing exceptions;
+     * @return future record metadata, completed exceptionally with AvroProducerException on
+     *         delivery failure;
+     * @throws AvroProducerException on not being able to enqueue record;
      */
-    public void send(String k, GenericRecord v, Map<String, String> headers) throws
-            AvroProducerException {
+    public CompletableFuture<RecordMetadata> send(
+            String k, byte[] v, Map<String, String> headers) throws AvroProducerException {
         var topic = routeConfig.getTopic();
         var record = new ProducerRecord<>(topic, k, v);
+        var future = new CompletableFuture<RecordMetadata>();
 
         record.headers().add(RAVINE_KEY, k.getBytes());
+        if (replyTo != null) {
+            record.headers().add(RAVINE_REPLY_TO, replyTo.getBytes());
+        }
+        if (!replyPartitions.isEmpty()) {
+            record.headers().add(RAVINE_REPLY_PARTITION, nextReplyPartition().getBytes());
+        }
         headers.forEach((headerKey, headerValue) -> {
             log.debug("Kafka record header: '{}'='{}'", headerKey, headerValue);
             record.headers().add(headerKey, headerValue.getBytes());
         });
 
         try {
-            producer.send(record).get();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        } catch (ExecutionException | TimeoutException e) {
-            log.error("Error producing message on topic '{}': '{}'", topic, e.getMessage());
+            producer.send(record, (metadata, e) -> {
+                if (e != null) {
+                    log.error("Error producing message on topic '{}': '{}'", topic,
+                            e.getMessage());
+                    future.completeExceptionally(new AvroProducerException(e.getMessage()));
+                    return;
+                }
+                future.complete(metadata);
+            });
+        } catch (KafkaException e) {
+            log.error("Error enqueuing message on topic '{}': '{}'", topic, e.getMessage());
             throw new AvroProducerException(e.getMessage());
         }
+
+        return future;
     }
 }
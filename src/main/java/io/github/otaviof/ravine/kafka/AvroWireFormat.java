@@ -0,0 +1,82 @@
+package io.github.otaviof.ravine.kafka;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import org.apache.avro.Schema;
+
+/**
+ * Confluent wire-format helpers, where Avro binary payload is preceded by a magic byte and the
+ * Schema-Registry schema id (4 bytes, big-endian).
+ */
+public final class AvroWireFormat {
+    public static final byte MAGIC_BYTE = 0x0;
+    public static final int HEADER_SIZE = 5;
+
+    private AvroWireFormat() {
+    }
+
+    /**
+     * Write wire-format header, magic byte and schema id, on output stream.
+     *
+     * @param out output stream;
+     * @param schemaId Schema-Registry schema id;
+     */
+    public static void writeHeader(ByteArrayOutputStream out, int schemaId) {
+        out.write(MAGIC_BYTE);
+        out.write(schemaId >>> 24);
+        out.write(schemaId >>> 16);
+        out.write(schemaId >>> 8);
+        out.write(schemaId);
+    }
+
+    /**
+     * Read schema id from wire-format header.
+     *
+     * @param payload record bytes;
+     * @return schema id, or null when payload is not in wire-format;
+     */
+    public static Integer schemaId(byte[] payload) {
+        if (payload == null || payload.length < HEADER_SIZE || payload[0] != MAGIC_BYTE) {
+            return null;
+        }
+        return ByteBuffer.wrap(payload, 1, 4).getInt();
+    }
+
+    /**
+     * Subject name for record values on topic, following Schema-Registry topic name strategy.
+     *
+     * @param topic topic name;
+     * @return subject name;
+     */
+    public static String valueSubject(String topic) {
+        return String.format("%s-value", topic);
+    }
+
+    /**
+     * Subject name for record values on topic, following the informed Schema-Registry subject name
+     * strategy, either as class or class name. Topic name strategy is used by default.
+     *
+     * @param topic topic name;
+     * @param schema record schema;
+     * @param strategy subject name strategy, or null;
+     * @return subject name, or null when strategy is not supported;
+     */
+    public static String valueSubject(String topic, Schema schema, Object strategy) {
+        if (strategy == null) {
+            return valueSubject(topic);
+        }
+
+        var name = strategy instanceof Class ?
+                ((Class<?>) strategy).getName() : strategy.toString().trim();
+        if (name.endsWith(".TopicRecordNameStrategy")) {
+            return String.format("%s-%s", topic, schema.getFullName());
+        }
+        if (name.endsWith(".RecordNameStrategy")) {
+            return schema.getFullName();
+        }
+        if (name.endsWith(".TopicNameStrategy")) {
+            return valueSubject(topic);
+        }
+        return null;
+    }
+}
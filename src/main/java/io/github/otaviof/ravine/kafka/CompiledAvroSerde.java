@@ -0,0 +1,112 @@
+package io.github.otaviof.ravine.kafka;
+
+import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
+import io.confluent.kafka.streams.serdes.avro.GenericAvroSerializer;
+import io.github.otaviof.ravine.confluent.SchemaRegistry;
+import io.github.otaviof.ravine.confluent.SchemaRegistryException;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Generic Avro serde for Confluent wire-format, where records are deserialized with readers
+ * compiled per writer schema (AvroBinaryReader), instead of GenericDatumReader. Writer schemas are
+ * looked up on Schema-Registry by the id informed in wire-format header. Serialization is delegated
+ * to Confluent's GenericAvroSerializer.
+ */
+public class CompiledAvroSerde implements Serde<GenericRecord> {
+    private final GenericAvroSerializer serializer = new GenericAvroSerializer();
+    private final CompiledAvroDeserializer deserializer = new CompiledAvroDeserializer();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        serializer.configure(configs, isKey);
+        deserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public void close() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Override
+    public Serializer<GenericRecord> serializer() {
+        return serializer;
+    }
+
+    @Override
+    public Deserializer<GenericRecord> deserializer() {
+        return deserializer;
+    }
+
+    /**
+     * Deserializer resolving compiled readers by schema id, so the hot path does not fingerprint
+     * schemas, neither reaches Schema-Registry.
+     */
+    static class CompiledAvroDeserializer implements Deserializer<GenericRecord> {
+        private final Map<Integer, AvroBinaryReader> readers = new ConcurrentHashMap<>();
+
+        private SchemaRegistry schemaRegistry;
+
+        @Override
+        public void configure(Map<String, ?> configs, boolean isKey) {
+            var url = configs.get(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG);
+
+            if (url == null) {
+                throw new SerializationException("Schema-Registry URL is not informed");
+            }
+            schemaRegistry = new SchemaRegistry(url.toString());
+        }
+
+        @Override
+        public GenericRecord deserialize(String topic, byte[] data) {
+            if (data == null) {
+                return null;
+            }
+
+            var schemaId = AvroWireFormat.schemaId(data);
+            if (schemaId == null) {
+                throw new SerializationException(String.format(
+                        "Record on topic '%s' is not in wire-format", topic));
+            }
+
+            var reader = readers.computeIfAbsent(schemaId, this::compile);
+
+            var in = DecoderFactory.get().binaryDecoder(data, AvroWireFormat.HEADER_SIZE,
+                    data.length - AvroWireFormat.HEADER_SIZE, null);
+            try {
+                return reader.read(in);
+            } catch (IOException | RuntimeException e) {
+                throw new SerializationException(String.format(
+                        "Error deserializing record with schema id '%d' on topic '%s'",
+                        schemaId, topic), e);
+            }
+        }
+
+        /**
+         * Look up writer schema, and obtain its compiled reader.
+         *
+         * @param schemaId schema id;
+         * @return AvroBinaryReader;
+         */
+        private AvroBinaryReader compile(int schemaId) {
+            try {
+                return AvroBinaryReader.forSchema(schemaRegistry.getById(schemaId));
+            } catch (SchemaRegistryException e) {
+                throw new SerializationException(e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            readers.clear();
+        }
+    }
+}
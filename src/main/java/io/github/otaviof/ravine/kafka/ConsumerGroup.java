@@ -4,37 +4,49 @@ import static org.awaitility.Awaitility.await;
 
 import io.github.otaviof.ravine.config.Config;
 import io.github.otaviof.ravine.config.KafkaRouteConfig;
+import io.github.otaviof.ravine.router.PendingRequests;
+import io.github.otaviof.ravine.router.ResponseBus;
 import io.opentracing.Tracer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.errors.TopicExistsException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Configurable;
 import org.springframework.boot.actuate.health.CompositeHealthIndicator;
 import org.springframework.boot.actuate.health.HealthAggregator;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.actuate.health.HealthIndicatorRegistry;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 
 /**
  * Represents all consumers in this application, where messages received by them are funneled into
- * ApplicationEvents mechanism.
+ * the response bus, as long as there's a pending request waiting for them.
  */
 @Component
 @Configurable
 @Slf4j
-public class ConsumerGroup implements ApplicationEventPublisherAware {
+public class ConsumerGroup {
+    private static final String STREAMS_ENGINE = "streams";
+
     private final Tracer tracer;
     private final Config config;
-    private final Map<AvroConsumer, Thread> consumerThreads;
-    private ApplicationEventPublisher publisher;
+    private final PendingRequests pendingRequests;
+    private final ResponseBus responseBus;
+    private final Map<ResponseConsumer, Thread> consumerThreads;
 
     @Autowired
     private HealthAggregator healthAggregator;
@@ -42,22 +54,18 @@ public class ConsumerGroup implements ApplicationEventPublisherAware {
     @Autowired
     private HealthIndicatorRegistry healthIndicatorRegistry;
 
-    public ConsumerGroup(Tracer tracer, Config config) {
+    public ConsumerGroup(
+            Tracer tracer,
+            Config config,
+            PendingRequests pendingRequests,
+            ResponseBus responseBus) {
         this.tracer = tracer;
         this.config = config;
+        this.pendingRequests = pendingRequests;
+        this.responseBus = responseBus;
         this.consumerThreads = new HashMap<>();
     }
 
-    /**
-     * Receive ApplicationEvent publisher instance.
-     *
-     * @param publisher event publisher instance;
-     */
-    @Override
-    public void setApplicationEventPublisher(ApplicationEventPublisher publisher) {
-        this.publisher = publisher;
-    }
-
     /**
      * Loop over consumer status, make sure they are all running within a time window.
      */
@@ -67,18 +75,26 @@ public class ConsumerGroup implements ApplicationEventPublisherAware {
 
         log.info("Waiting for consumers to be ready (max '{} ms')...", timeout);
 
-        await().atMost(timeout, TimeUnit.MILLISECONDS).until(() -> {
-            Thread.sleep(config.getStartup().getCheckIntervalMs());
+        await().atMost(timeout, TimeUnit.MILLISECONDS)
+                .pollDelay(0, TimeUnit.MILLISECONDS)
+                .pollInterval(config.getStartup().getCheckIntervalMs(), TimeUnit.MILLISECONDS)
+                .until(this::allConsumersRunning);
+    }
 
-            var runningConsumers = consumerThreads.keySet().stream()
-                    .filter(AvroConsumer::isRunning)
-                    .collect(Collectors.toList());
+    /**
+     * Check if all consumers are reporting running state.
+     *
+     * @return boolean;
+     */
+    private boolean allConsumersRunning() {
+        var runningConsumers = consumerThreads.keySet().stream()
+                .filter(ResponseConsumer::isRunning)
+                .collect(Collectors.toList());
 
-            log.info("Amount of consumers reporting ready: '{}'/'{}'",
-                    runningConsumers.size(), consumerThreads.size());
+        log.info("Amount of consumers reporting ready: '{}'/'{}'",
+                runningConsumers.size(), consumerThreads.size());
 
-            return runningConsumers.size() == consumerThreads.size();
-        });
+        return runningConsumers.size() == consumerThreads.size();
     }
 
     /**
@@ -86,7 +102,8 @@ public class ConsumerGroup implements ApplicationEventPublisherAware {
      * but applies simple deduplication to not consume from the same topic at once.
      *
      * @return map based on getResponseKafkaRouteConfigs;
-     * @throws ConsumerGroupException on having two topics with different serialization settings;
+     * @throws ConsumerGroupException on having two topics with different serialization settings,
+     *         or different partitions assigned;
      */
     private Map<String, KafkaRouteConfig> plan() throws ConsumerGroupException {
         var toConsumeConfigs = new HashMap<String, KafkaRouteConfig>();
@@ -103,6 +120,13 @@ public class ConsumerGroup implements ApplicationEventPublisherAware {
                             topic, serde, cfg.getValueSerde());
                     throw new ConsumerGroupException(msg);
                 }
+                if (cfg.getTopic().equals(topic)
+                        && !cfg.getPartitions().equals(entry.getValue().getPartitions())) {
+                    var msg = String.format(
+                            "Topic '%s' was defined with different partitions: '%s' vs. '%s'!",
+                            topic, entry.getValue().getPartitions(), cfg.getPartitions());
+                    throw new ConsumerGroupException(msg);
+                }
             }
 
             toConsumeConfigs.put(entry.getKey(), entry.getValue());
@@ -111,10 +135,74 @@ public class ConsumerGroup implements ApplicationEventPublisherAware {
         return toConsumeConfigs;
     }
 
+    /**
+     * Instantiate a consumer for route configuration. Polling consumer is used when selected as
+     * consumer engine, or when partitions are informed, since it requires manual assignment.
+     * Otherwise, Kafka Streams is employed.
+     *
+     * @param cfg response kafka route configuration;
+     * @return ResponseConsumer;
+     */
+    private ResponseConsumer newConsumer(KafkaRouteConfig cfg) {
+        if (cfg.getPartitions().isEmpty() && STREAMS_ENGINE.equals(cfg.getConsumerEngine())) {
+            return new AvroConsumer(tracer, responseBus, pendingRequests::isPending,
+                    pendingRequests::isRaw, config.getKafka(), cfg);
+        }
+
+        log.info("Polling consumer on topic '{}', partitions '{}'", cfg.getTopic(),
+                cfg.getPartitions().isEmpty() ? "all" : cfg.getPartitions());
+        return new PollingAvroConsumer(tracer, responseBus, pendingRequests::isPending,
+                pendingRequests::isRaw, config.getKafka(), cfg);
+    }
+
+    /**
+     * Make sure the per-instance reply topic exists, creating it when missing.
+     *
+     * @param cfg response kafka route configuration, with per-instance topic;
+     * @throws ConsumerGroupException on not being able to inspect or create topic;
+     */
+    private void ensureReplyTopic(KafkaRouteConfig cfg) throws ConsumerGroupException {
+        var timeout = config.getStartup().getTimeoutMs();
+        var p = new Properties();
+
+        p.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, config.getKafka().getBrokers());
+        p.putAll(config.getKafka().getProperties());
+
+        try (var admin = AdminClient.create(p)) {
+            var topics = admin.listTopics().names().get(timeout, TimeUnit.MILLISECONDS);
+
+            if (topics.contains(cfg.getTopic())) {
+                log.info("Reply topic '{}' is found.", cfg.getTopic());
+                return;
+            }
+
+            log.info("Creating reply topic '{}' with '{}' partitions, replication-factor '{}'",
+                    cfg.getTopic(), cfg.getReplyTopicPartitions(),
+                    cfg.getReplyTopicReplicationFactor());
+            var topic = new NewTopic(cfg.getTopic(), cfg.getReplyTopicPartitions(),
+                    cfg.getReplyTopicReplicationFactor());
+            admin.createTopics(Collections.singleton(topic)).all()
+                    .get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsumerGroupException("Interrupted on preparing reply topic");
+        } catch (ExecutionException | TimeoutException e) {
+            if (e.getCause() instanceof TopicExistsException) {
+                log.info("Reply topic '{}' was created concurrently.", cfg.getTopic());
+                return;
+            }
+            var msg = String.format("Unable to prepare reply topic '%s': '%s'",
+                    cfg.getTopic(), e.getMessage());
+            log.error(msg);
+            throw new ConsumerGroupException(msg);
+        }
+    }
+
     /**
      * Bootstrap consumers threads, based on plan.
      *
-     * @throws ConsumerGroupException on having two topics with different serialization settings;
+     * @throws ConsumerGroupException on having two topics with different serialization settings,
+     *         or when reply topic can't be prepared;
      */
     public void bootstrap() throws ConsumerGroupException {
         for (Entry<String, KafkaRouteConfig> entry : plan().entrySet()) {
@@ -133,14 +221,40 @@ public class ConsumerGroup implements ApplicationEventPublisherAware {
                 continue;
             }
 
-            var consumer = new AvroConsumer(tracer, publisher, config.getKafka(), cfg);
-            var thread = new Thread(new AvroConsumerRunnable(consumer));
+            if (cfg.isReplyTopicPerInstance()) {
+                ensureReplyTopic(cfg);
+            }
+
+            var consumer = newConsumer(cfg);
+            var thread = new Thread(consumer);
 
             thread.start();
             consumerThreads.put(consumer, thread);
         }
     }
 
+    /**
+     * Close all consumers, and wait for their threads to finish, bounded by startup timeout.
+     */
+    @PreDestroy
+    public void close() {
+        var timeout = config.getStartup().getTimeoutMs();
+
+        consumerThreads.keySet().forEach(ResponseConsumer::close);
+        for (Entry<ResponseConsumer, Thread> entry : consumerThreads.entrySet()) {
+            try {
+                entry.getValue().join(timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (entry.getValue().isAlive()) {
+                log.warn("Consumer on topic '{}' did not stop within '{}' ms",
+                        entry.getKey().getTopic(), timeout);
+            }
+        }
+    }
+
     /**
      * Aggregate and expose a bean wth health-indicators of all instantiated consumers.
      *
@@ -150,7 +264,7 @@ public class ConsumerGroup implements ApplicationEventPublisherAware {
     public HealthIndicator consumersHealthIndicator() {
         var composite = new CompositeHealthIndicator(healthAggregator, healthIndicatorRegistry);
 
-        for (AvroConsumer c : consumerThreads.keySet()) {
+        for (ResponseConsumer c : consumerThreads.keySet()) {
             healthIndicatorRegistry.register(String.format("kafka-consumer--%s", c.getTopic()), c);
         }
 
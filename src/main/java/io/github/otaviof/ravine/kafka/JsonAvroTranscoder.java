@@ -0,0 +1,617 @@
+package io.github.otaviof.ravine.kafka;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.Schema.Type;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
+
+/**
+ * Streaming JSON to Avro binary transcoder, compiled from a schema. Jackson tokens are written
+ * directly as Avro binary, without an intermediate record. Plain JSON is accepted: union values are
+ * informed naturally (or using Avro JSON encoding, {"type": value}), record fields may arrive in any
+ * order, and missing fields are filled with schema defaults. Arrays and maps are written as blocks of
+ * one item, since the amount of items is not known upfront.
+ */
+class JsonAvroTranscoder {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Schema schema;
+    private final ValueWriter root;
+
+    /**
+     * Constructor, compiling schema into writers.
+     *
+     * @param schema Avro schema;
+     */
+    JsonAvroTranscoder(Schema schema) {
+        this.schema = schema;
+        this.root = compile(schema, new HashMap<>());
+    }
+
+    /**
+     * Transcode a JSON payload into Avro binary.
+     *
+     * @param payload JSON payload bytes;
+     * @param enc Avro encoder;
+     * @throws ProducerGroupAvroConversionException on payload not matching schema, with the path of
+     *         offending field;
+     * @throws IOException on writing to encoder;
+     */
+    void transcode(byte[] payload, Encoder enc) throws
+            ProducerGroupAvroConversionException, IOException {
+        try (var p = JSON_FACTORY.createParser(payload)) {
+            if (p.nextToken() == null) {
+                throw new ProducerGroupAvroConversionException("empty payload");
+            }
+            root.write(p, enc);
+            if (p.nextToken() != null) {
+                throw new TranscoderException(
+                        String.format("unexpected '%s' after document", p.getText()));
+            }
+        } catch (TranscoderException e) {
+            throw new ProducerGroupAvroConversionException(e.describe(schema.getName()));
+        } catch (JsonParseException e) {
+            throw new ProducerGroupAvroConversionException(
+                    String.format("invalid JSON: %s", e.getOriginalMessage()));
+        }
+    }
+
+    /**
+     * Compile a schema into a value writer. Record writers are registered before their fields are
+     * compiled, so recursive schemas are supported.
+     *
+     * @param s schema;
+     * @param records compiled record writers by full name;
+     * @return ValueWriter;
+     */
+    private static ValueWriter compile(Schema s, Map<String, RecordWriter> records) {
+        switch (s.getType()) {
+            case NULL:
+                return (p, enc) -> {
+                    expect(p, s, JsonToken.VALUE_NULL);
+                    enc.writeNull();
+                };
+            case BOOLEAN:
+                return (p, enc) -> {
+                    if (!p.currentToken().isBoolean()) {
+                        throw mismatch(p, s);
+                    }
+                    enc.writeBoolean(p.getBooleanValue());
+                };
+            case INT:
+                return (p, enc) -> {
+                    if (!isInt(p)) {
+                        throw mismatch(p, s);
+                    }
+                    enc.writeInt(p.getIntValue());
+                };
+            case LONG:
+                return (p, enc) -> {
+                    if (!isLong(p)) {
+                        throw mismatch(p, s);
+                    }
+                    enc.writeLong(p.getLongValue());
+                };
+            case FLOAT:
+                return (p, enc) -> {
+                    if (!p.currentToken().isNumeric()) {
+                        throw mismatch(p, s);
+                    }
+                    enc.writeFloat(p.getFloatValue());
+                };
+            case DOUBLE:
+                return (p, enc) -> {
+                    if (!p.currentToken().isNumeric()) {
+                        throw mismatch(p, s);
+                    }
+                    enc.writeDouble(p.getDoubleValue());
+                };
+            case STRING:
+                return (p, enc) -> {
+                    expect(p, s, JsonToken.VALUE_STRING);
+                    enc.writeString(p.getText());
+                };
+            case BYTES:
+                return (p, enc) -> enc.writeBytes(bytes(p, s));
+            case FIXED:
+                return (p, enc) -> {
+                    var bytes = bytes(p, s);
+                    if (bytes.length != s.getFixedSize()) {
+                        throw new TranscoderException(String.format(
+                                "expected %d bytes for '%s', found %d",
+                                s.getFixedSize(), s.getFullName(), bytes.length));
+                    }
+                    enc.writeFixed(bytes);
+                };
+            case ENUM:
+                return (p, enc) -> {
+                    expect(p, s, JsonToken.VALUE_STRING);
+                    if (!s.hasEnumSymbol(p.getText())) {
+                        throw new TranscoderException(String.format(
+                                "'%s' is not a symbol of '%s'", p.getText(), s.getFullName()));
+                    }
+                    enc.writeEnum(s.getEnumOrdinal(p.getText()));
+                };
+            case ARRAY:
+                return new ArrayWriter(s, compile(s.getElementType(), records));
+            case MAP:
+                return new MapWriter(s, compile(s.getValueType(), records));
+            case UNION:
+                return new UnionWriter(s, s.getTypes().stream()
+                        .map(t -> compile(t, records))
+                        .collect(Collectors.toList()));
+            case RECORD:
+                var existing = records.get(s.getFullName());
+                if (existing != null) {
+                    return existing;
+                }
+                var record = new RecordWriter(s);
+                records.put(s.getFullName(), record);
+                record.compileFields(records);
+                return record;
+            default:
+                throw new IllegalArgumentException("unsupported schema type: " + s.getType());
+        }
+    }
+
+    private static boolean isInt(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NUMBER_INT
+                && p.getNumberType() == NumberType.INT;
+    }
+
+    private static boolean isLong(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NUMBER_INT
+                && p.getNumberType() != NumberType.BIG_INTEGER;
+    }
+
+    private static boolean isDecimal(Schema s) {
+        return s.getLogicalType() instanceof LogicalTypes.Decimal;
+    }
+
+    /**
+     * Read bytes value, either a ISO-8859-1 string as per Avro JSON encoding, or a number when
+     * schema has decimal logical-type.
+     *
+     * @param p parser;
+     * @param s bytes or fixed schema;
+     * @return array of bytes;
+     * @throws IOException on reading parser;
+     */
+    private static byte[] bytes(JsonParser p, Schema s) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            return p.getText().getBytes(StandardCharsets.ISO_8859_1);
+        }
+        if (!isDecimal(s) || !p.currentToken().isNumeric()) {
+            throw mismatch(p, s);
+        }
+
+        var decimal = (LogicalTypes.Decimal) s.getLogicalType();
+        BigDecimal value;
+        try {
+            value = p.getDecimalValue().setScale(decimal.getScale());
+        } catch (ArithmeticException e) {
+            throw new TranscoderException(String.format(
+                    "'%s' does not fit decimal scale %d", p.getText(), decimal.getScale()));
+        }
+
+        var unscaled = value.unscaledValue().toByteArray();
+        if (s.getType() != Type.FIXED || unscaled.length == s.getFixedSize()) {
+            return unscaled;
+        }
+        if (unscaled.length > s.getFixedSize()) {
+            throw new TranscoderException(String.format(
+                    "'%s' does not fit in %d bytes", p.getText(), s.getFixedSize()));
+        }
+
+        // sign extension up to fixed size
+        var padded = new byte[s.getFixedSize()];
+        var pad = (byte) (value.signum() < 0 ? 0xff : 0x00);
+        var offset = padded.length - unscaled.length;
+        for (var i = 0; i < offset; i++) {
+            padded[i] = pad;
+        }
+        System.arraycopy(unscaled, 0, padded, offset, unscaled.length);
+        return padded;
+    }
+
+    private static void expect(JsonParser p, Schema s, JsonToken token) throws IOException {
+        if (p.currentToken() != token) {
+            throw mismatch(p, s);
+        }
+    }
+
+    private static TranscoderException mismatch(JsonParser p, Schema s) throws IOException {
+        var found = p.currentToken().isScalarValue() ? p.getText() : p.currentToken().asString();
+        var type = s.getType() == Type.UNION ? s.toString() : s.getType().getName();
+        return new TranscoderException(String.format("expected %s, found '%s'", type, found));
+    }
+
+    /**
+     * Writes the JSON value the parser is pointing to. Container values are consumed up to their
+     * end token.
+     */
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(JsonParser p, Encoder enc) throws IOException;
+    }
+
+    /**
+     * Record writer, fields are written in schema order. Fields arriving earlier than expected are
+     * encoded aside, and written as soon as the preceding fields are, missing fields are written
+     * with default values, encoded upfront.
+     */
+    private static class RecordWriter implements ValueWriter {
+        private final Schema schema;
+        private final Map<String, Integer> positions;
+        private final String[] names;
+        private final ValueWriter[] writers;
+        private final byte[][] defaults;
+
+        RecordWriter(Schema schema) {
+            var fields = schema.getFields();
+
+            this.schema = schema;
+            this.positions = new HashMap<>();
+            this.names = new String[fields.size()];
+            this.writers = new ValueWriter[fields.size()];
+            this.defaults = new byte[fields.size()][];
+        }
+
+        void compileFields(Map<String, RecordWriter> records) {
+            for (Field field : schema.getFields()) {
+                positions.put(field.name(), field.pos());
+                names[field.pos()] = field.name();
+                writers[field.pos()] = compile(field.schema(), records);
+                defaults[field.pos()] = encodeDefault(field);
+            }
+        }
+
+        /**
+         * Encode field default value, when informed.
+         *
+         * @param field record field;
+         * @return array of bytes, or null without default;
+         */
+        private static byte[] encodeDefault(Field field) {
+            if (field.defaultVal() == null) {
+                return null;
+            }
+
+            var out = new ByteArrayOutputStream();
+            var enc = EncoderFactory.get().directBinaryEncoder(out, null);
+            try {
+                var value = GenericData.get().getDefaultValue(field);
+                new GenericDatumWriter<>(field.schema()).write(value, enc);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(String.format(
+                        "unable to encode default of field '%s'", field.name()), e);
+            }
+            return out.toByteArray();
+        }
+
+        boolean hasField(String name) {
+            return positions.containsKey(name);
+        }
+
+        @Override
+        public void write(JsonParser p, Encoder enc) throws IOException {
+            expect(p, schema, JsonToken.START_OBJECT);
+            p.nextToken();
+            writeBody(p, enc);
+        }
+
+        /**
+         * Write record fields, parser is pointing to first field name, or object end.
+         *
+         * @param p parser;
+         * @param enc encoder;
+         * @throws IOException on reading or writing;
+         */
+        void writeBody(JsonParser p, Encoder enc) throws IOException {
+            byte[][] early = null;
+            var next = 0;
+
+            for (; p.currentToken() == JsonToken.FIELD_NAME; p.nextToken()) {
+                var name = p.getCurrentName();
+                var pos = positions.get(name);
+
+                p.nextToken();
+                if (pos == null) {
+                    p.skipChildren();
+                    continue;
+                }
+                if (pos < next || (early != null && early[pos] != null)) {
+                    throw new TranscoderException("duplicated field").under(name);
+                }
+
+                try {
+                    if (pos == next) {
+                        writers[pos].write(p, enc);
+                        next++;
+                        while (early != null && next < early.length && early[next] != null) {
+                            enc.writeFixed(early[next]);
+                            early[next++] = null;
+                        }
+                    } else {
+                        if (early == null) {
+                            early = new byte[names.length][];
+                        }
+                        early[pos] = writeAside(writers[pos], p);
+                    }
+                } catch (TranscoderException e) {
+                    throw e.under(name);
+                }
+            }
+            expect(p, schema, JsonToken.END_OBJECT);
+
+            for (; next < names.length; next++) {
+                if (early != null && early[next] != null) {
+                    enc.writeFixed(early[next]);
+                } else if (defaults[next] != null) {
+                    enc.writeFixed(defaults[next]);
+                } else {
+                    throw new TranscoderException("missing required field").under(names[next]);
+                }
+            }
+        }
+
+        private static byte[] writeAside(ValueWriter writer, JsonParser p) throws IOException {
+            var out = new ByteArrayOutputStream();
+            var enc = EncoderFactory.get().directBinaryEncoder(out, null);
+
+            writer.write(p, enc);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Array writer, each element is written as a block of one item.
+     */
+    private static class ArrayWriter implements ValueWriter {
+        private final Schema schema;
+        private final ValueWriter element;
+
+        ArrayWriter(Schema schema, ValueWriter element) {
+            this.schema = schema;
+            this.element = element;
+        }
+
+        @Override
+        public void write(JsonParser p, Encoder enc) throws IOException {
+            expect(p, schema, JsonToken.START_ARRAY);
+            enc.writeArrayStart();
+            for (var i = 0; p.nextToken() != JsonToken.END_ARRAY; i++) {
+                enc.setItemCount(1);
+                enc.startItem();
+                try {
+                    element.write(p, enc);
+                } catch (TranscoderException e) {
+                    throw e.at(i);
+                }
+            }
+            enc.writeArrayEnd();
+        }
+    }
+
+    /**
+     * Map writer, each entry is written as a block of one item.
+     */
+    private static class MapWriter implements ValueWriter {
+        private final Schema schema;
+        private final ValueWriter value;
+
+        MapWriter(Schema schema, ValueWriter value) {
+            this.schema = schema;
+            this.value = value;
+        }
+
+        @Override
+        public void write(JsonParser p, Encoder enc) throws IOException {
+            expect(p, schema, JsonToken.START_OBJECT);
+            p.nextToken();
+            writeBody(p, enc);
+        }
+
+        void writeBody(JsonParser p, Encoder enc) throws IOException {
+            enc.writeMapStart();
+            for (; p.currentToken() == JsonToken.FIELD_NAME; p.nextToken()) {
+                var key = p.getCurrentName();
+
+                enc.setItemCount(1);
+                enc.startItem();
+                enc.writeString(key);
+                p.nextToken();
+                try {
+                    value.write(p, enc);
+                } catch (TranscoderException e) {
+                    throw e.under(key);
+                }
+            }
+            expect(p, schema, JsonToken.END_OBJECT);
+            enc.writeMapEnd();
+        }
+    }
+
+    /**
+     * Union writer, the branch is selected based on the JSON value type. Objects are written as the
+     * record branch having the first field informed, as map branch, or, when the first field is
+     * named after a branch, as Avro JSON encoding of union.
+     */
+    private static class UnionWriter implements ValueWriter {
+        private final Schema schema;
+        private final List<Schema> types;
+        private final List<ValueWriter> writers;
+
+        UnionWriter(Schema schema, List<ValueWriter> writers) {
+            this.schema = schema;
+            this.types = schema.getTypes();
+            this.writers = writers;
+        }
+
+        @Override
+        public void write(JsonParser p, Encoder enc) throws IOException {
+            if (p.currentToken() == JsonToken.START_OBJECT) {
+                writeObject(p, enc);
+                return;
+            }
+
+            var index = scalarBranch(p);
+            if (index < 0) {
+                throw mismatch(p, schema);
+            }
+            enc.writeIndex(index);
+            writers.get(index).write(p, enc);
+        }
+
+        /**
+         * Select branch for a non-object value.
+         *
+         * @param p parser;
+         * @return branch index, or -1;
+         * @throws IOException on reading parser;
+         */
+        private int scalarBranch(JsonParser p) throws IOException {
+            var token = p.currentToken();
+
+            for (var i = 0; i < types.size(); i++) {
+                var t = types.get(i);
+                var matches = false;
+
+                switch (t.getType()) {
+                    case NULL:
+                        matches = token == JsonToken.VALUE_NULL;
+                        break;
+                    case BOOLEAN:
+                        matches = token.isBoolean();
+                        break;
+                    case INT:
+                        matches = isInt(p);
+                        break;
+                    case LONG:
+                        matches = isLong(p);
+                        break;
+                    case FLOAT:
+                    case DOUBLE:
+                        matches = token.isNumeric();
+                        break;
+                    case STRING:
+                        matches = token == JsonToken.VALUE_STRING;
+                        break;
+                    case ENUM:
+                        matches = token == JsonToken.VALUE_STRING && t.hasEnumSymbol(p.getText());
+                        break;
+                    case BYTES:
+                    case FIXED:
+                        matches = token == JsonToken.VALUE_STRING
+                                || (token.isNumeric() && isDecimal(t));
+                        break;
+                    case ARRAY:
+                        matches = token == JsonToken.START_ARRAY;
+                        break;
+                    default:
+                        break;
+                }
+                if (matches) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Write a object value, based on the first field name.
+         *
+         * @param p parser;
+         * @param enc encoder;
+         * @throws IOException on reading or writing;
+         */
+        private void writeObject(JsonParser p, Encoder enc) throws IOException {
+            var first = p.nextToken() == JsonToken.FIELD_NAME ? p.getCurrentName() : null;
+            var record = -1;
+            var map = -1;
+            var tagged = -1;
+
+            for (var i = 0; i < types.size(); i++) {
+                var t = types.get(i);
+
+                if (t.getType() == Type.RECORD && record < 0 && (first == null
+                        || ((RecordWriter) writers.get(i)).hasField(first))) {
+                    record = i;
+                } else if (t.getType() == Type.MAP && map < 0) {
+                    map = i;
+                }
+                if (first != null && tagged < 0
+                        && (first.equals(t.getFullName()) || first.equals(t.getName()))) {
+                    tagged = i;
+                }
+            }
+
+            if (record >= 0) {
+                enc.writeIndex(record);
+                ((RecordWriter) writers.get(record)).writeBody(p, enc);
+            } else if (tagged >= 0) {
+                enc.writeIndex(tagged);
+                p.nextToken();
+                try {
+                    writers.get(tagged).write(p, enc);
+                } catch (TranscoderException e) {
+                    throw e.under(first);
+                }
+                if (p.nextToken() != JsonToken.END_OBJECT) {
+                    throw new TranscoderException("expected a single value in union object");
+                }
+            } else if (map >= 0) {
+                enc.writeIndex(map);
+                ((MapWriter) writers.get(map)).writeBody(p, enc);
+            } else {
+                throw new TranscoderException(String.format(
+                        "expected %s, found object", schema.toString()));
+            }
+        }
+    }
+
+    /**
+     * Transcoding error, the path of offending value is composed while the exception bubbles up
+     * through enclosing writers.
+     */
+    private static class TranscoderException extends IOException {
+        private final Deque<String> path = new ArrayDeque<>();
+
+        TranscoderException(String message) {
+            super(message, null);
+        }
+
+        TranscoderException under(String name) {
+            path.addFirst("." + name);
+            return this;
+        }
+
+        TranscoderException at(int index) {
+            path.addFirst("[" + index + "]");
+            return this;
+        }
+
+        String describe(String root) {
+            return String.format("field '%s%s': %s", root, String.join("", path), getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.otaviof.ravine.kafka;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Request payload formats accepted by Ravine, identified by content-type.
+ */
+public enum PayloadFormat {
+    // plain JSON, transcoded into Avro based on route schema
+    JSON,
+    // Avro binary encoding of route schema, without header
+    AVRO_BINARY,
+    // Confluent wire-format, magic byte and schema id followed by Avro binary
+    AVRO_WIRE_FORMAT;
+
+    public static final String AVRO_BINARY_VALUE = "application/vnd.apache.avro+binary";
+    public static final String AVRO_WIRE_FORMAT_VALUE = "application/vnd.confluent.avro+binary";
+
+    /**
+     * Identify payload format based on content-type, defaults to JSON.
+     *
+     * @param contentType request content-type, or null;
+     * @return PayloadFormat;
+     */
+    public static PayloadFormat fromContentType(String contentType) {
+        if (contentType == null || contentType.isEmpty()) {
+            return JSON;
+        }
+
+        var mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.valueOf(AVRO_BINARY_VALUE))) {
+            return AVRO_BINARY;
+        }
+        if (mediaType.isCompatibleWith(MediaType.valueOf(AVRO_WIRE_FORMAT_VALUE))) {
+            return AVRO_WIRE_FORMAT;
+        }
+        return JSON;
+    }
+
+    /**
+     * Check if accept header explicitly lists Confluent wire-format, wildcards are not considered.
+     * A malformed header is taken as not accepting wire-format.
+     *
+     * @param accept accept header, or null;
+     * @return boolean;
+     */
+    public static boolean acceptsWireFormat(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return false;
+        }
+
+        var wireFormat = MediaType.valueOf(AVRO_WIRE_FORMAT_VALUE);
+        try {
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(wireFormat::includes);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
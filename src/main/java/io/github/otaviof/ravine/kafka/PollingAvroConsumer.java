@@ -0,0 +1,311 @@
+package io.github.otaviof.ravine.kafka;
+
+import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
+import io.github.otaviof.ravine.config.KafkaConfig;
+import io.github.otaviof.ravine.config.KafkaRouteConfig;
+import io.github.otaviof.ravine.router.Event;
+import io.github.otaviof.ravine.router.EventSink;
+import io.opentracing.Tracer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health.Builder;
+
+/**
+ * Generic Avro consumer based on a plain Kafka consumer poll loop, a lightweight alternative to
+ * Kafka Streams, records are dispatched directly from polled batches and offsets are committed
+ * asynchronously on a interval. When partitions are informed in configuration the consumer is
+ * manually assigned to the share of this instance, which Kafka Streams does not support, so each
+ * Ravine instance only reads the replies addressed to its own partitions. Otherwise, it subscribes
+ * to the topic. When the event sink is full, partitions are paused until there's room again,
+ * keeping the consumer alive in the group meanwhile.
+ */
+@Slf4j
+public class PollingAvroConsumer extends AbstractHealthIndicator implements ResponseConsumer {
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+    private static final Duration BACKOFF = Duration.ofMillis(1);
+
+    private final RecordHandler handler;
+    private final KafkaConfig kafkaConfig;
+    private final KafkaRouteConfig routeConfig;
+    private final KafkaConsumer<String, byte[]> consumer;
+
+    @Getter
+    private final String topic;
+
+    private volatile boolean running = false;
+    private volatile boolean failed = false;
+    private volatile boolean closed = false;
+    private boolean backpressured = false;
+    private long lastCommit = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param tracer tracer instance;
+     * @param sink event sink, receiving accepted records;
+     * @param accept predicate on ravine-key, only accepted records are deserialized and offered;
+     * @param raw predicate on ravine-key, records waiting for raw response are not deserialized;
+     * @param kafkaConfig global kafka configuration;
+     * @param routeConfig kafka route configuration;
+     */
+    public PollingAvroConsumer(
+            Tracer tracer,
+            EventSink sink,
+            Predicate<String> accept,
+            Predicate<String> raw,
+            KafkaConfig kafkaConfig,
+            KafkaRouteConfig routeConfig) {
+        this.handler = new RecordHandler(tracer, sink, accept, raw,
+                RecordHandler.valueDeserializer(kafkaConfig, routeConfig));
+        this.kafkaConfig = kafkaConfig;
+        this.routeConfig = routeConfig;
+        this.topic = routeConfig.getTopic();
+        this.consumer = new KafkaConsumer<>(
+                consumerProperties(), new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    /**
+     * Setup consumer properties.
+     *
+     * @return Map with consumer properties;
+     */
+    private Map<String, Object> consumerProperties() {
+        var brokers = kafkaConfig.getBrokers();
+        var p = new HashMap<String, Object>();
+
+        log.info("Consumer bootstrap servers: '{}'", brokers);
+        p.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers);
+
+        p.put(ConsumerConfig.CLIENT_ID_CONFIG, routeConfig.getClientId());
+        p.put(ConsumerConfig.GROUP_ID_CONFIG, routeConfig.getGroupId());
+
+        // replies are only relevant while requests are pending, offsets are committed on interval
+        p.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        p.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        p.put(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG,
+                kafkaConfig.getSchemaRegistryUrl());
+
+        p.putAll(kafkaConfig.getProperties());
+        p.putAll(routeConfig.getProperties());
+
+        return p;
+    }
+
+    /**
+     * Assign configured partitions, skipping to the end since older replies are not pending.
+     */
+    private void assign() {
+        var partitions = routeConfig.getPartitions().stream()
+                .map(p -> new TopicPartition(topic, p))
+                .collect(Collectors.toList());
+
+        log.info("Starting consumer on topic '{}' assigned to partitions '{}'...",
+                topic, routeConfig.getPartitions());
+
+        consumer.assign(partitions);
+        consumer.seekToEnd(partitions);
+        running = true;
+    }
+
+    /**
+     * Subscribe to topic, consumer is running when partitions are assigned.
+     */
+    private void subscribe() {
+        log.info("Starting consumer on topic '{}' with group-id '{}'...",
+                topic, routeConfig.getGroupId());
+
+        consumer.subscribe(Collections.singleton(topic), new ConsumerRebalanceListener() {
+            @Override
+            public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                running = false;
+            }
+
+            @Override
+            public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                log.info("Consumer on topic '{}' assigned to '{}'", topic, partitions);
+                // rebalance while waiting for room on sink, new partitions must stay paused too
+                if (backpressured) {
+                    consumer.pause(partitions);
+                }
+                running = true;
+            }
+        });
+    }
+
+    /**
+     * Commit consumed offsets asynchronously, when commit interval has elapsed. Commits are
+     * disabled when interval is zero.
+     */
+    private void commit() {
+        var interval = routeConfig.getCommitIntervalMs();
+        var now = System.currentTimeMillis();
+
+        if (interval <= 0 || now - lastCommit < interval) {
+            return;
+        }
+
+        lastCommit = now;
+        consumer.commitAsync((offsets, e) -> {
+            if (e != null) {
+                log.warn("Error committing offsets on topic '{}': '{}'", topic, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Commit consumed offsets before closing, a pending wake-up may interrupt the first attempt,
+     * therefore it is retried once.
+     */
+    private void commitSync() {
+        if (routeConfig.getCommitIntervalMs() <= 0) {
+            return;
+        }
+
+        for (var attempt = 0; attempt < 2; attempt++) {
+            try {
+                consumer.commitSync();
+                return;
+            } catch (WakeupException e) {
+                log.debug("Consumer on topic '{}' woken up while committing", topic);
+            } catch (Exception e) {
+                log.warn("Error committing offsets on topic '{}': '{}'", topic, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Offer event to handler, when sink is full the assigned partitions are paused, and consumer
+     * keeps polling (without receiving records) until the event is taken. Partitions assigned by
+     * a rebalance meanwhile are paused as well, and records eventually returned are not skipped,
+     * consumer seeks back to them. Only partitions still assigned are resumed.
+     *
+     * @param event Event object;
+     */
+    private void dispatch(Event event) {
+        if (handler.offer(event)) {
+            return;
+        }
+
+        log.warn("Response bus is full, pausing consumer on topic '{}'", topic);
+        backpressured = true;
+        try {
+            consumer.pause(consumer.assignment());
+            while (!handler.offer(event) && !closed) {
+                rewind(consumer.poll(BACKOFF));
+            }
+        } finally {
+            backpressured = false;
+        }
+        consumer.resume(consumer.paused());
+    }
+
+    /**
+     * Seek back to the first offset of each partition in records, so they are polled again.
+     *
+     * @param records records polled while backpressured;
+     */
+    private void rewind(ConsumerRecords<String, byte[]> records) {
+        for (TopicPartition partition : records.partitions()) {
+            var first = records.records(partition).get(0);
+
+            log.debug("Seeking back to offset '{}' on '{}'", first.offset(), partition);
+            consumer.seek(partition, first.offset());
+        }
+    }
+
+    /**
+     * Assign or subscribe, and poll records until closed.
+     */
+    @Override
+    public void run() {
+        try {
+            if (routeConfig.getPartitions().isEmpty()) {
+                subscribe();
+            } else {
+                assign();
+            }
+
+            while (!closed) {
+                for (var record : consumer.poll(POLL_TIMEOUT)) {
+                    var event = handler.handle(
+                            record.topic(), record.key(), record.headers(), record.value());
+
+                    if (event != null) {
+                        dispatch(event);
+                    }
+                }
+                commit();
+            }
+        } catch (WakeupException e) {
+            log.info("Consumer on topic '{}' is woken up, closing.", topic);
+        } catch (Exception e) {
+            log.error("Consumer on topic '{}' failed: '{}'", topic, e.getMessage());
+            failed = true;
+        } finally {
+            running = false;
+            if (!failed) {
+                commitSync();
+            }
+            consumer.close();
+        }
+    }
+
+    /**
+     * Stop polling loop, consumer is closed by polling thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        consumer.wakeup();
+    }
+
+    /**
+     * Consumer is assigned and polling.
+     *
+     * @return boolean;
+     */
+    @Override
+    public boolean isRunning() {
+        log.info("Consumer on topic '{}' running: {}", topic, running);
+        return running;
+    }
+
+    /**
+     * Report consumer state as health-check.
+     *
+     * @param builder health builder object;
+     */
+    @Override
+    protected void doHealthCheck(Builder builder) {
+        if (running) {
+            builder.up();
+            return;
+        }
+        if (failed) {
+            log.error("Kafka consumer on topic '{}' has failed", topic);
+            builder.down();
+            return;
+        }
+
+        log.info("Kafka consumer on topic '{}' is not running", topic);
+        builder.unknown();
+    }
+}
@@ -1,100 +1,124 @@
 package io.github.otaviof.ravine.kafka;
 
+import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
 import io.github.otaviof.ravine.config.Config;
 import io.github.otaviof.ravine.config.RouteConfig;
 import io.github.otaviof.ravine.config.SubjectConfig;
 import io.github.otaviof.ravine.confluent.SchemaRegistry;
 import io.github.otaviof.ravine.confluent.SchemaRegistryException;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.opentracing.Tracer;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.avro.AvroTypeException;
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericDatumWriter;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.io.DecoderFactory;
-import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.springframework.stereotype.Component;
 
 /**
  * Group all Kafka producers in a single instance, organizing producers by the path the represent in
- * configuration object.
+ * configuration object. Kafka producers are pooled, and shared by routes with equivalent settings.
  */
 @Component
 @Slf4j
 public class ProducerGroup {
+    private static final String DELIVERY_FAILURES = "ravine.producer.delivery.failures";
+
     private final Tracer tracer;
     private final Config config;
+    private final MeterRegistry meterRegistry;
 
+    private final ProducerPool pool;
     private final Map<String, AvroProducer> producers;
-    private final Map<String, Schema> reqSchemas;
+    private final Map<String, AvroCodec> reqCodecs;
     private final SchemaRegistry schemaRegistry;
 
-    public ProducerGroup(Tracer tracer, Config config) throws
+    public ProducerGroup(Tracer tracer, Config config, MeterRegistry meterRegistry) throws
             SchemaRegistryException, IOException, ProducerGroupException {
         this.tracer = tracer;
         this.config = config;
+        this.meterRegistry = meterRegistry;
         this.schemaRegistry = new SchemaRegistry(config.getKafka().getSchemaRegistryUrl());
 
-        this.reqSchemas = new HashMap<>();
+        this.pool = new ProducerPool(config.getKafka().getProducerPoolSize());
+        this.reqCodecs = new HashMap<>();
         this.producers = new HashMap<>();
 
         bootstrap();
     }
 
     /**
-     * Produce a message in Kafka topic.
+     * Produce a message in Kafka topic, asynchronously. Delivery failures are accounted in
+     * "ravine.producer.delivery.failures" counter, tagged by path.
      *
      * @param path on behalf of path, used to search configuration;
      * @param key record key;
-     * @param headers kafka record headers;
      * @param value future record payload;
-     * @throws AvroProducerException on having errors to serialize;
+     * @param format payload format;
+     * @param headers kafka record headers;
+     * @return future record metadata, completed when broker acknowledges;
+     * @throws AvroProducerException on not being able to enqueue record;
+     * @throws ProducerGroupAvroConversionException on converting payload to Avro;
      */
-    public void send(String path, String key, byte[] value, Map<String, String> headers) throws
+    public CompletableFuture<RecordMetadata> send(
+            String path,
+            String key,
+            byte[] value,
+            PayloadFormat format,
+            Map<String, String> headers) throws
             AvroProducerException, ProducerGroupAvroConversionException {
-        var record = convertToAvro(value, reqSchemas.get(path));
+        var record = convertToAvro(value, format, reqCodecs.get(path));
 
         log.info("Producing message with key '{}' for path '{}'", key, path);
 
-        producers.get(path).send(key, record, headers);
+        var future = producers.get(path).send(key, record, headers);
+
+        future.whenComplete((metadata, e) -> {
+            if (e != null) {
+                meterRegistry.counter(DELIVERY_FAILURES, "path", path).increment();
+            }
+        });
+
+        return future;
     }
 
     /**
-     * Serialize a array of bytes into a generic Avro object, based on class defined Schema.
+     * Convert a JSON payload into Avro, based on route Schema, and serialize it in Confluent
+     * wire-format, ready to be produced without further serialization. Payloads informed as Avro
+     * binary are only validated against route Schema, and are not decoded.
      *
      * @param payload array of bytes with submitted payload;
-     * @param schema Avro schema;
-     * @return GenericRecord representation;
+     * @param format payload format;
+     * @param codec route codec;
+     * @return array of bytes in wire-format;
      */
-    private GenericRecord convertToAvro(byte[] payload, Schema schema) throws
+    private byte[] convertToAvro(byte[] payload, PayloadFormat format, AvroCodec codec) throws
             ProducerGroupAvroConversionException {
-        var input = new ByteArrayInputStream(payload);
-        var output = new ByteArrayOutputStream();
-        var enc = EncoderFactory.get().binaryEncoder(output, null);
-        var reader = new GenericDatumReader<GenericRecord>(schema);
-        var writer = new GenericDatumWriter<GenericRecord>(schema);
-
-        log.info("Parsing request body against Schema '{}'", schema.getName());
-        log.debug("Message body informed is: '{}'", new String(payload));
+        log.info("Parsing '{}' request body against Schema '{}'", format,
+                codec.getSchema().getName());
+        if (log.isDebugEnabled() && format == PayloadFormat.JSON) {
+            log.debug("Message body informed is: '{}'", new String(payload));
+        }
 
         try {
-            var dec = DecoderFactory.get().jsonDecoder(schema, input);
-            var record = reader.read(null, dec);
-
-            writer.write(record, enc);
-            enc.flush();
-
-            return record;
-        } catch (IOException | AvroTypeException e) {
-            log.error("Error on parsing message body: '{}', caused by '{}'",
-                    e.getMessage(), e.getCause());
+            switch (format) {
+                case AVRO_BINARY:
+                    return codec.binaryToWireFormat(payload);
+                case AVRO_WIRE_FORMAT:
+                    return codec.validateWireFormat(payload);
+                default:
+                    return codec.jsonToWireFormat(payload);
+            }
+        } catch (ProducerGroupAvroConversionException e) {
+            log.error("Error on parsing message body: '{}'", e.getMessage());
+            throw e;
+        } catch (IOException e) {
+            log.error("Error on encoding message body: '{}'", e.getMessage());
             throw new ProducerGroupAvroConversionException(e.getMessage());
         }
     }
@@ -144,14 +168,58 @@ public class ProducerGroup {
 
             var spanName = String.format("name=\"%s\", subject=\"%s\", version=\"%d\"",
                     route.getName(), subject.getName(), subject.getVersion());
-            var producer = new AvroProducer(tracer, spanName, config.getKafka(),
-                    route.getRequest());
+            var properties = AvroProducer.producerProperties(config.getKafka(), route.getRequest());
+            var kafkaProducer = pool.acquire(
+                    properties, route.getRequest().isDedicatedProducer());
+            pool.warmUp(kafkaProducer, route.getRequest().getTopic());
+            var producer = new AvroProducer(tracer, spanName, kafkaProducer,
+                    route.getRequest(), config.getReplyKafkaRouteConfig(route));
 
             producers.put(routePath, producer);
 
             log.info("Registering route using '{}' scheam, version '{}'",
                     subject.getName(), subject.getVersion());
-            reqSchemas.put(routePath, schema);
+            var schemaId = schemaId(route.getRequest().getTopic(), schema, properties);
+            reqCodecs.put(routePath, new AvroCodec(schema, schemaId));
         }
+
+        log.info("Routes are sharing '{}' Kafka producers", pool.size());
+    }
+
+    /**
+     * Obtain the id of request schema under value subject, honoring subject name strategy and
+     * auto-registering settings of producer properties, as Confluent serializers would. When
+     * auto-registering is disabled, schema must be registered already, and its id is looked up.
+     *
+     * @param topic request topic;
+     * @param schema request schema;
+     * @param properties producer properties;
+     * @return int schema id;
+     * @throws SchemaRegistryException when issues on Schema-Registry client;
+     * @throws ProducerGroupException on subject name strategy not supported;
+     */
+    private int schemaId(String topic, Schema schema, Properties properties) throws
+            SchemaRegistryException, ProducerGroupException {
+        var strategy = properties.get(AbstractKafkaAvroSerDeConfig.VALUE_SUBJECT_NAME_STRATEGY);
+        var subjectName = AvroWireFormat.valueSubject(topic, schema, strategy);
+
+        if (subjectName == null) {
+            throw new ProducerGroupException(String.format(
+                    "subject name strategy '%s' is not supported", strategy));
+        }
+
+        var autoRegister = properties.get(AbstractKafkaAvroSerDeConfig.AUTO_REGISTER_SCHEMAS);
+        if (autoRegister != null && !Boolean.parseBoolean(autoRegister.toString().trim())) {
+            return schemaRegistry.getId(subjectName, schema);
+        }
+        return schemaRegistry.register(subjectName, schema);
+    }
+
+    /**
+     * Close Kafka producers.
+     */
+    @PreDestroy
+    public void close() {
+        pool.close();
     }
 }
@@ -0,0 +1,127 @@
+package io.github.otaviof.ravine.kafka;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.KafkaException;
+
+/**
+ * Pool of Kafka producers shared among routes. Routes with equal producer properties (brokers,
+ * serde, acks and overrides) share up to pool-size producers, assigned in a round-robin fashion,
+ * so they have a common sender thread, buffer memory and broker connections, and are batched
+ * together. Dedicated producers are never shared. Topic metadata is loaded once per producer and
+ * topic, in the background.
+ */
+@Slf4j
+class ProducerPool {
+    private final int size;
+    private final Map<Properties, List<Producer<String, byte[]>>> shared;
+    private final Map<Properties, Integer> assigned;
+    private final List<Producer<String, byte[]>> producers;
+    private final Map<Producer<String, byte[]>, Set<String>> warmedUp;
+    private final ExecutorService warmUpExecutor;
+
+    /**
+     * Constructor.
+     *
+     * @param size maximum amount of shared producers per set of properties;
+     */
+    ProducerPool(int size) {
+        this.size = size;
+        this.shared = new HashMap<>();
+        this.assigned = new HashMap<>();
+        this.producers = new ArrayList<>();
+        this.warmedUp = new IdentityHashMap<>();
+        this.warmUpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "ravine-producer-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Acquire a producer for informed properties, creating a new one while pool is not full.
+     *
+     * @param properties producer properties;
+     * @param dedicated flag to create a producer not shared with other routes;
+     * @return Kafka producer;
+     */
+    Producer<String, byte[]> acquire(Properties properties, boolean dedicated) {
+        if (dedicated) {
+            log.info("Creating a dedicated Kafka producer");
+            return create(properties);
+        }
+
+        var instances = shared.computeIfAbsent(properties, p -> new ArrayList<>());
+        var index = assigned.merge(properties, 1, Integer::sum) - 1;
+
+        if (instances.size() < size) {
+            log.info("Creating shared Kafka producer '{}'/'{}'", instances.size() + 1, size);
+            instances.add(create(properties));
+        }
+
+        log.info("Sharing Kafka producer '{}'/'{}'", index % size + 1, size);
+        return instances.get(index % size);
+    }
+
+    private Producer<String, byte[]> create(Properties properties) {
+        var producer = new KafkaProducer<String, byte[]>(properties);
+
+        producers.add(producer);
+        return producer;
+    }
+
+    /**
+     * Load topic metadata upfront, otherwise the first send on request path waits for metadata in a
+     * monitor, which pins the carrier thread when running on virtual threads. Metadata is loaded
+     * once per producer and topic, without holding startup, and failures are only logged.
+     *
+     * @param producer Kafka producer;
+     * @param topic topic name;
+     */
+    void warmUp(Producer<String, byte[]> producer, String topic) {
+        if (!warmedUp.computeIfAbsent(producer, p -> new HashSet<>()).add(topic)) {
+            return;
+        }
+
+        warmUpExecutor.execute(() -> {
+            try {
+                var partitions = producer.partitionsFor(topic);
+                log.info("Topic '{}' has '{}' partitions", topic, partitions.size());
+            } catch (KafkaException e) {
+                log.warn("Unable to load metadata for topic '{}': '{}'", topic, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Amount of Kafka producers instantiated.
+     *
+     * @return int;
+     */
+    int size() {
+        return producers.size();
+    }
+
+    /**
+     * Close all Kafka producers, flushing buffered records.
+     */
+    void close() {
+        warmUpExecutor.shutdownNow();
+        producers.forEach(Producer::close);
+        producers.clear();
+        shared.clear();
+        assigned.clear();
+        warmedUp.clear();
+    }
+}
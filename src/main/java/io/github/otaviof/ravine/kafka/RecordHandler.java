@@ -0,0 +1,149 @@
+package io.github.otaviof.ravine.kafka;
+
+import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
+import io.github.otaviof.ravine.config.KafkaConfig;
+import io.github.otaviof.ravine.config.KafkaRouteConfig;
+import io.github.otaviof.ravine.router.Event;
+import io.github.otaviof.ravine.router.EventSink;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.kafka.TracingKafkaUtils;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Handles consumed records, independent of consumer implementation. Records are received as raw
+ * bytes, and the ravine-key header is inspected first, so only records accepted (i.e. pending on
+ * this instance) are deserialized into events, and offered to the event sink. Records waiting for a
+ * raw response are not deserialized at all. Actions are surrounded in a tracing span approach.
+ */
+@Slf4j
+class RecordHandler {
+    private final Tracer tracer;
+    private final EventSink sink;
+    private final Predicate<String> accept;
+    private final Predicate<String> raw;
+    private final Deserializer<GenericRecord> deserializer;
+
+    RecordHandler(
+            Tracer tracer,
+            EventSink sink,
+            Predicate<String> accept,
+            Predicate<String> raw,
+            Deserializer<GenericRecord> deserializer) {
+        this.tracer = tracer;
+        this.sink = sink;
+        this.accept = accept;
+        this.raw = raw;
+        this.deserializer = deserializer;
+    }
+
+    /**
+     * Instantiate configured value serde, and extract its deserializer.
+     *
+     * @param kafkaConfig global kafka configuration;
+     * @param routeConfig kafka route configuration;
+     * @return generic record deserializer;
+     * @throws ConfigException on not being able to load serde class;
+     */
+    @SuppressWarnings("unchecked")
+    static Deserializer<GenericRecord> valueDeserializer(
+            KafkaConfig kafkaConfig, KafkaRouteConfig routeConfig) {
+        var p = new HashMap<String, Object>();
+
+        p.put(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG,
+                kafkaConfig.getSchemaRegistryUrl());
+        p.putAll(kafkaConfig.getProperties());
+        p.putAll(routeConfig.getProperties());
+
+        try {
+            var serde = (Serde<GenericRecord>) Utils.newInstance(
+                    routeConfig.getValueSerde(), Serde.class);
+
+            serde.configure(p, false);
+            return serde.deserializer();
+        } catch (ClassNotFoundException e) {
+            throw new ConfigException(
+                    "valueSerde", routeConfig.getValueSerde(), "serde class is not found");
+        }
+    }
+
+    /**
+     * Handle a consumed record, deserializing it into a event when accepted.
+     *
+     * @param topic topic name;
+     * @param k record key;
+     * @param headers record headers;
+     * @param v record payload bytes;
+     * @return Event, or null when record is skipped;
+     */
+    Event handle(String topic, String k, Headers headers, byte[] v) {
+        var header = headers.lastHeader(AvroProducer.RAVINE_KEY);
+        var ravineKey = header != null ? new String(header.value(), StandardCharsets.UTF_8) : k;
+
+        if (!accept.test(ravineKey)) {
+            log.trace("Skipping record from topic '{}' with ravine-key '{}'", topic, ravineKey);
+            return null;
+        }
+
+        var span = tracingSpan(headers);
+
+        try (var scope = tracer.scopeManager().activate(span)) {
+            log.info("Processing event from topic '{}' with ravine-key '{}'", topic, ravineKey);
+
+            if (raw.test(ravineKey)) {
+                return Event.raw(ravineKey, v);
+            }
+            return new Event(ravineKey, deserializer.deserialize(topic, headers, v));
+        } finally {
+            span.finish();
+        }
+    }
+
+    /**
+     * Offer event to sink, without blocking.
+     *
+     * @param event Event object;
+     * @return boolean, false when sink is full and consumer should hold off;
+     */
+    boolean offer(Event event) {
+        return sink.offer(event);
+    }
+
+    /**
+     * Reject event which could not be offered, failing the request waiting for it.
+     *
+     * @param event Event object;
+     * @param reason rejection reason;
+     */
+    void reject(Event event, String reason) {
+        sink.reject(event, reason);
+    }
+
+    /**
+     * Extract the tracing span based in record headers.
+     *
+     * @param headers record headers;
+     * @return Span;
+     */
+    private Span tracingSpan(Headers headers) {
+        var spanBuilder = tracer.buildSpan(StreamProcessor.class.getName());
+        var spanContext = TracingKafkaUtils.extractSpanContext(headers, tracer);
+
+        if (spanContext != null) {
+            spanBuilder.asChildOf(spanContext);
+        }
+
+        var span = spanBuilder.start();
+        headers.forEach(h -> span.setTag(h.key(), new String(h.value())));
+        return span;
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.otaviof.ravine.kafka;
+
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Common contract of consumers managed by ConsumerGroup. Consumers are started in a background
+ * thread, and report their status as health-indicators.
+ */
+public interface ResponseConsumer extends HealthIndicator, Runnable {
+    /**
+     * Topic name consumed.
+     *
+     * @return String;
+     */
+    String getTopic();
+
+    /**
+     * Consumer is running and ready to receive records.
+     *
+     * @return boolean;
+     */
+    boolean isRunning();
+
+    /**
+     * Stop consuming, committing offsets and leaving consumer group.
+     */
+    void close();
+}
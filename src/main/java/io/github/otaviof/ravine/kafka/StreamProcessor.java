@@ -1,29 +1,33 @@
 package io.github.otaviof.ravine.kafka;
 
 import io.github.otaviof.ravine.router.Event;
-import io.opentracing.Span;
-import io.opentracing.Tracer;
-import io.opentracing.contrib.kafka.TracingKafkaUtils;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.kafka.common.header.Header;
 import org.apache.kafka.streams.processor.Processor;
 import org.apache.kafka.streams.processor.ProcessorContext;
-import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * Low level API stream processor in order to access Kafka headers.
  */
 @Slf4j
-public class StreamProcessor implements Processor<String, GenericRecord> {
-    private final Tracer tracer;
-    private final ApplicationEventPublisher publisher;
+public class StreamProcessor implements Processor<String, byte[]> {
+    private static final long BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RecordHandler handler;
+    private final long maxWaitNanos;
 
     private ProcessorContext context;
 
-    StreamProcessor(Tracer tracer, ApplicationEventPublisher publisher) {
-        this.tracer = tracer;
-        this.publisher = publisher;
+    /**
+     * Constructor.
+     *
+     * @param handler record handler;
+     * @param maxWaitMs maximum time to wait for room on sink, usually the response timeout;
+     */
+    StreamProcessor(RecordHandler handler, int maxWaitMs) {
+        this.handler = handler;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
     }
 
     /**
@@ -37,38 +41,46 @@ public class StreamProcessor implements Processor<String, GenericRecord> {
     }
 
     /**
-     * Process a message in stream, by inspecting headers, and forwarding the event. Actions are
-     * surrounded in a tracing span approach.
+     * Process a message in stream, by handing it over to record handler. Offsets are not committed
+     * when the event is rejected.
      *
      * @param k message key;
-     * @param v message payload;
+     * @param v message payload bytes;
      */
     @Override
-    public void process(String k, GenericRecord v) {
-        var span = tracingSpan();
-
-        try (var scope = tracer.scopeManager().activate(span)) {
-            var ravineKey = k;
+    public void process(String k, byte[] v) {
+        var event = handler.handle(context.topic(), k, context.headers(), v);
 
-            log.info("Processing event from topic '{}' with key '{}'", context.topic(), k);
+        if (event != null && !dispatch(event)) {
+            return;
+        }
+        context.commit();
+    }
 
-            for (Header h : context.headers()) {
-                var key = h.key();
-                var value = new String(h.value());
+    /**
+     * Offer event to handler, when sink is full the stream thread is parked until there's room,
+     * holding off consumption. Waiting is bounded, so the stream thread is not held beyond the
+     * response timeout, after which the event is rejected.
+     *
+     * @param event Event object;
+     * @return boolean, false when event is rejected;
+     */
+    private boolean dispatch(Event event) {
+        if (handler.offer(event)) {
+            return true;
+        }
 
-                log.trace("Header: key='{}', value='{}'", key, value);
-                if (AvroProducer.RAVINE_KEY.equals(key)) {
-                    ravineKey = value;
-                    log.debug("Using ravine-key '{}' from header entry on consumed record.",
-                            ravineKey);
-                }
+        log.warn("Response bus is full, holding off stream on topic '{}'", context.topic());
+        var deadline = System.nanoTime() + maxWaitNanos;
+        do {
+            if (Thread.currentThread().isInterrupted() || System.nanoTime() - deadline >= 0) {
+                handler.reject(event, String.format(
+                        "response bus is full, event from topic '%s' is dropped", context.topic()));
+                return false;
             }
-
-            publisher.publishEvent(new Event(this, ravineKey, v));
-            context.commit();
-        } finally {
-            span.finish();
-        }
+            LockSupport.parkNanos(this, BACKOFF_NANOS);
+        } while (!handler.offer(event));
+        return true;
     }
 
     /**
@@ -78,22 +90,4 @@ public class StreamProcessor implements Processor<String, GenericRecord> {
     public void close() {
         // not implemented
     }
-
-    /**
-     * Extract the tracing span based in record headers.
-     *
-     * @return Span;
-     */
-    private Span tracingSpan() {
-        var spanBuilder = tracer.buildSpan(this.getClass().getName());
-        var spanContext = TracingKafkaUtils.extractSpanContext(context.headers(), tracer);
-
-        if (spanContext != null) {
-            spanBuilder.asChildOf(spanContext);
-        }
-
-        var span = spanBuilder.start();
-        context.headers().forEach(h -> span.setTag(h.key(), new String(h.value())));
-        return span;
-    }
 }
@@ -0,0 +1,219 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.config.Config;
+import io.github.otaviof.ravine.config.RouteConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounds the amount of requests in flight, per route and for the whole instance. A request takes a
+ * permit before being produced, and gives it back when its response arrives, or it fails. Requests
+ * above the limit are rejected right away with RouterRouteOverloadedException, so a slow downstream
+ * cannot hold every web-server thread. Routes with adaptive limit adjust their limit with
+ * VegasLimit, fed by the round-trip time of each request, measured from permit acquisition until
+ * response arrives. Requests in flight are exposed as "ravine.route.in.flight" gauge, adaptive
+ * limits as "ravine.route.limit" gauge, and rejections as "ravine.route.rejected" counter, all
+ * tagged by route.
+ */
+@Slf4j
+class AdmissionControl {
+    private static final String IN_FLIGHT = "ravine.route.in.flight";
+    private static final String REJECTED = "ravine.route.rejected";
+    private static final String LIMIT = "ravine.route.limit";
+
+    private final MeterRegistry meterRegistry;
+    private final Limit global;
+    private final Map<String, Limit> routes;
+    private final int retryAfterSeconds;
+
+    /**
+     * Constructor.
+     *
+     * @param config ravine configuration;
+     * @param meterRegistry meter registry;
+     */
+    AdmissionControl(Config config, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.global = new Limit(config.getExecutor().getMaxInFlight(), null);
+        this.routes = new HashMap<>();
+        this.retryAfterSeconds = config.getExecutor().getRetryAfterSeconds();
+
+        meterRegistry.gauge("ravine.in.flight", global.inFlight);
+        for (RouteConfig routeConfig : config.getRoutes()) {
+            var response = routeConfig.getResponse();
+            var tags = Tags.of("route", routeConfig.getName());
+            var limit = response == null ? new Limit(0, null) : new Limit(
+                    response.getMaxInFlight(),
+                    response.getAdaptiveLimit().isEnabled() ?
+                            new VegasLimit(response.getAdaptiveLimit()) : null);
+
+            meterRegistry.gauge(IN_FLIGHT, tags, limit.inFlight);
+            if (limit.adaptive != null) {
+                meterRegistry.gauge(LIMIT, tags, limit.adaptive, VegasLimit::getLimit);
+            }
+            routes.put(routeConfig.getName(), limit);
+        }
+    }
+
+    /**
+     * Take a permit to dispatch a request on route, first on route limit, then on instance limit.
+     *
+     * @param routeConfig route configuration;
+     * @return Permit, to be released when request is done;
+     * @throws RouterRouteOverloadedException when route or instance is at its limit;
+     */
+    Permit acquire(RouteConfig routeConfig) throws RouterRouteOverloadedException {
+        var name = routeConfig.getName();
+        var route = routes.get(name);
+
+        var inFlight = route.tryAcquire();
+        if (inFlight < 0) {
+            throw reject(name, "route", route.max());
+        }
+        if (global.tryAcquire() < 0) {
+            route.release();
+            throw reject(name, "instance", global.max());
+        }
+        return new Permit(route, inFlight);
+    }
+
+    /**
+     * Account rejection, and prepare exception.
+     *
+     * @param route route name;
+     * @param scope limit scope, route or instance;
+     * @param max limit reached;
+     * @return RouterRouteOverloadedException;
+     */
+    private RouterRouteOverloadedException reject(String route, String scope, int max) {
+        log.warn("Rejecting request on route '{}', {} limit of '{}' requests in flight reached",
+                route, scope, max);
+        meterRegistry.counter(REJECTED, "route", route, "scope", scope).increment();
+
+        return new RouterRouteOverloadedException(
+                String.format("route '%s' is overloaded, %s limit of %d requests in flight reached",
+                        route, scope, max),
+                retryAfterSeconds);
+    }
+
+    /**
+     * Amount of requests in flight on route, for testing.
+     *
+     * @param route route name;
+     * @return int;
+     */
+    int inFlight(String route) {
+        return routes.get(route).inFlight.get();
+    }
+
+    /**
+     * Adaptive limit of route, for testing.
+     *
+     * @param route route name;
+     * @return int, or -1 when route has no adaptive limit;
+     */
+    int limit(String route) {
+        var adaptive = routes.get(route).adaptive;
+        return adaptive != null ? adaptive.getLimit() : -1;
+    }
+
+    /**
+     * Permit of a request in flight, released only once.
+     */
+    class Permit {
+        private final Limit route;
+        private final int inFlight;
+        private final long startNanos;
+        private boolean released = false;
+
+        private Permit(Limit route, int inFlight) {
+            this.route = route;
+            this.inFlight = inFlight;
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Give permit back without a round-trip sample, used when request is not produced.
+         */
+        void release() {
+            release(false, null);
+        }
+
+        /**
+         * Give permit back when request is done, feeding adaptive limit with round-trip time.
+         * Timeouts count as drops, and other failures are not sampled.
+         *
+         * @param error request failure, or null;
+         */
+        void release(Throwable error) {
+            var cause = error instanceof CompletionException ? error.getCause() : error;
+            release(cause == null || cause instanceof RouterRouteTimeoutException, cause);
+        }
+
+        private void release(boolean sample, Throwable cause) {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            route.release();
+            global.release();
+
+            if (sample && route.adaptive != null) {
+                route.adaptive.onSample(System.nanoTime() - startNanos, inFlight, cause != null);
+            }
+        }
+    }
+
+    /**
+     * Counter of requests in flight, bounded by static maximum, zero means unbounded, and by
+     * adaptive limit when present.
+     */
+    private static class Limit {
+        private final int max;
+        private final VegasLimit adaptive;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        Limit(int max, VegasLimit adaptive) {
+            this.max = max;
+            this.adaptive = adaptive;
+        }
+
+        int max() {
+            if (adaptive == null) {
+                return max;
+            }
+            return max > 0 ? Math.min(max, adaptive.getLimit()) : adaptive.getLimit();
+        }
+
+        /**
+         * Take a slot, when below limit.
+         *
+         * @return requests in flight including this one, or -1 when limit is reached;
+         */
+        int tryAcquire() {
+            var limit = max();
+
+            while (true) {
+                var current = inFlight.get();
+
+                if (limit > 0 && current >= limit) {
+                    return -1;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return current + 1;
+                }
+            }
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -1,23 +1,36 @@
 package io.github.otaviof.ravine.router;
 
-import java.util.Date;
 import lombok.Getter;
 import org.apache.avro.generic.GenericRecord;
-import org.springframework.context.ApplicationEvent;
 
 /**
- * Event to carry on a generic Avro payload, plus metadata.
+ * Event to carry on a generic Avro payload, keyed by ravine-key. Events for raw responses carry the
+ * record bytes as consumed instead.
  */
 @Getter
-public class Event extends ApplicationEvent {
+public class Event {
     private final String k;
-    private final transient GenericRecord v;
-    private final Date createdAt;
+    private final GenericRecord v;
+    private final byte[] raw;
 
-    public Event(Object source, String k, GenericRecord v) {
-        super(source);
+    public Event(String k, GenericRecord v) {
+        this(k, v, null);
+    }
+
+    private Event(String k, GenericRecord v, byte[] raw) {
         this.k = k;
         this.v = v;
-        this.createdAt = new Date();
+        this.raw = raw;
+    }
+
+    /**
+     * Create event carrying record bytes, without decoding them.
+     *
+     * @param k ravine-key;
+     * @param raw record value bytes;
+     * @return Event;
+     */
+    public static Event raw(String k, byte[] raw) {
+        return new Event(k, null, raw);
     }
 }
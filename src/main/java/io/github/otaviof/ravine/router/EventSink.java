@@ -0,0 +1,22 @@
+package io.github.otaviof.ravine.router;
+
+/**
+ * Receives events produced by consumers.
+ */
+public interface EventSink {
+    /**
+     * Offer an event, without blocking.
+     *
+     * @param event Event object;
+     * @return boolean, false when the sink can't take the event right now;
+     */
+    boolean offer(Event event);
+
+    /**
+     * Reject an event that could not be offered, the request waiting for it must be failed.
+     *
+     * @param event Event object;
+     * @param reason rejection reason;
+     */
+    void reject(Event event, String reason);
+}
@@ -0,0 +1,53 @@
+package io.github.otaviof.ravine.router;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A request waiting for its response event. Besides the future, it carries the links used by
+ * TimingWheel to enforce its deadline, so timeouts don't need any extra scheduled task.
+ */
+public class PendingRequest extends CompletableFuture<Event> {
+    private final String key;
+    private final String path;
+    private final int timeoutMs;
+    private final boolean raw;
+
+    // timing-wheel bookkeeping, only touched by the wheel thread
+    final long deadline;
+    long rounds;
+    int bucket = -1;
+    PendingRequest prev;
+    PendingRequest next;
+
+    // intrusive stacks used to hand over requests to the wheel thread
+    PendingRequest nextScheduled;
+    PendingRequest nextCancelled;
+    volatile boolean cancelled;
+
+    PendingRequest(String key, String path, int timeoutMs, boolean raw) {
+        this.key = key;
+        this.path = path;
+        this.timeoutMs = timeoutMs;
+        this.raw = raw;
+        this.deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    boolean isRaw() {
+        return raw;
+    }
+
+    /**
+     * Fail this request with timeout exception.
+     *
+     * @return boolean, true when this call moved the request to completed state;
+     */
+    boolean expire() {
+        var msg = String.format(
+                "No response-event after '%d' ms for path '%s'.", timeoutMs, path);
+        return completeExceptionally(new RouterRouteTimeoutException(msg));
+    }
+}
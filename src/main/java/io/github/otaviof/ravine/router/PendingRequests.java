@@ -0,0 +1,152 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.config.Config;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of requests waiting for a response event, keyed by ravine-key. Each entry is a future
+ * that is completed as soon as the response event arrives, therefore waiting threads are notified
+ * right away instead of polling. Deadlines are enforced by a single TimingWheel, which fails the
+ * request with RouterRouteTimeoutException and purges it from registry. Requests are completed on
+ * a dedicated executor, so work depending on the response, like rendering it, does not take place
+ * on response bus, timing-wheel or Kafka producer threads.
+ */
+@Component
+@Slf4j
+public class PendingRequests {
+    private final Map<String, PendingRequest> pending;
+    private final TimingWheel wheel;
+    private final ExecutorService completions;
+
+    public PendingRequests(Config config) {
+        var threads = new AtomicInteger();
+
+        this.pending = new ConcurrentHashMap<>();
+        this.completions = Executors.newFixedThreadPool(
+                config.getBus().getCompletionThreads(), runnable -> {
+                    var thread = new Thread(runnable,
+                            String.format("ravine-completion-%d", threads.incrementAndGet()));
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.wheel = new TimingWheel(config.getTimer().getTickMs(),
+                config.getTimer().getTicksPerWheel(), this::expire);
+    }
+
+    /**
+     * Register a new pending request, must happen before the request is produced in Kafka.
+     *
+     * @param key ravine-key;
+     * @param path request path;
+     * @param timeoutMs ms to wait for response event;
+     * @param raw response event should carry record bytes, instead of a decoded record;
+     * @return future completed with response event;
+     */
+    public PendingRequest register(String key, String path, int timeoutMs, boolean raw) {
+        var request = new PendingRequest(key, path, timeoutMs, raw);
+
+        pending.put(key, request);
+        wheel.schedule(request);
+
+        return request;
+    }
+
+    /**
+     * Remove a pending request, used when the request message is not produced.
+     *
+     * @param key ravine-key;
+     */
+    public void remove(String key) {
+        var request = pending.remove(key);
+
+        if (request != null) {
+            wheel.cancel(request);
+        }
+    }
+
+    /**
+     * Check if a given key is waiting for response.
+     *
+     * @param key ravine-key;
+     * @return boolean;
+     */
+    public boolean isPending(String key) {
+        return pending.containsKey(key);
+    }
+
+    /**
+     * Check if a given key is waiting for the raw response record, which should not be decoded.
+     *
+     * @param key ravine-key;
+     * @return boolean;
+     */
+    public boolean isRaw(String key) {
+        var request = pending.get(key);
+        return request != null && request.isRaw();
+    }
+
+    /**
+     * Complete the pending request matching event key, events without a waiting request are
+     * discarded.
+     *
+     * @param event response event;
+     */
+    public void complete(Event event) {
+        var request = pending.remove(event.getK());
+
+        if (request == null) {
+            log.warn("Event key '{}' is not pending (timed out or unknown), skipping!",
+                    event.getK());
+            return;
+        }
+
+        request.completeAsync(() -> event, completions);
+        wheel.cancel(request);
+    }
+
+    /**
+     * Fail a pending request, used when the request message could not be delivered.
+     *
+     * @param key ravine-key;
+     * @param cause failure cause;
+     */
+    public void fail(String key, Throwable cause) {
+        var request = pending.remove(key);
+
+        if (request != null) {
+            completions.execute(() -> request.completeExceptionally(cause));
+            wheel.cancel(request);
+        }
+    }
+
+    /**
+     * Expire a pending request, invoked by timing-wheel thread.
+     *
+     * @param request pending request;
+     */
+    private void expire(PendingRequest request) {
+        if (pending.remove(request.getKey(), request)) {
+            completions.execute(() -> {
+                if (request.expire()) {
+                    log.error("Pending request '{}' has timed out.", request.getKey());
+                }
+            });
+        }
+    }
+
+    /**
+     * Stop timing-wheel thread, and completion executor.
+     */
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+        completions.shutdown();
+    }
+}
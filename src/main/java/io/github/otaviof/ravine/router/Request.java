@@ -1,14 +1,18 @@
 package io.github.otaviof.ravine.router;
 
-import java.io.ByteArrayOutputStream;
+import io.github.otaviof.ravine.kafka.PayloadFormat;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.util.StreamUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.LinkedCaseInsensitiveMap;
 
 /**
  * Represents a request, holds together the attributes needed to route it, and parse an actual
@@ -17,6 +21,8 @@ import org.springframework.util.StreamUtils;
  */
 @Getter
 public class Request {
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
     public static final String SEPARATOR = ",";
     public static final String RAVINE_REQUEST_PARAMETER_NAMES = "ravine-request-parameter-names";
     public static final String RAVINE_REQUEST_HEADER_NAMES = "ravine-request-header-names";
@@ -24,8 +30,17 @@ public class Request {
     private final String method;
     private final String path;
     private final byte[] body;
+    private final PayloadFormat format;
+    private final boolean rawResponseAccepted;
+    private final String ifNoneMatch;
     private final Map<String, String> headers;
 
+    @Getter(AccessLevel.NONE)
+    private final Map<String, String> parameters;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, String> httpHeaders;
+
     /**
      * Constructor. Creates a new Request with empty body.
      *
@@ -34,59 +49,188 @@ public class Request {
     public Request(HttpServletRequest req) {
         this.method = req.getMethod();
         this.path = req.getRequestURI().substring(req.getContextPath().length());
-        this.headers = extractHeaders(req);
+        this.parameters = extractParameters(req);
+        this.httpHeaders = extractHttpHeaders(req);
+        this.headers = extractHeaders(parameters, httpHeaders);
         this.body = "{}".getBytes();
+        this.format = PayloadFormat.JSON;
+        this.rawResponseAccepted =
+                PayloadFormat.acceptsWireFormat(req.getHeader(HttpHeaders.ACCEPT));
+        this.ifNoneMatch = req.getHeader(HttpHeaders.IF_NONE_MATCH);
     }
 
     /**
-     * Constructor. Creates a new Request instance dealing with the body as well.
+     * Constructor. Creates a new Request instance reading the body from servlet input stream.
      *
      * @param req servlet request;
-     * @param body body bytes;
-     * @throws IOException on dealing with byte copy;
+     * @param maxBodyBytes maximum body size;
+     * @throws IOException on reading body;
+     * @throws RouterRoutePayloadTooLargeException when body is larger than maximum size;
      */
-    public Request(HttpServletRequest req, byte[] body) throws IOException {
+    public Request(HttpServletRequest req, int maxBodyBytes) throws
+            IOException, RouterRoutePayloadTooLargeException {
         this.method = req.getMethod();
         this.path = req.getRequestURI().substring(req.getContextPath().length());
-        this.body = trimBody(req, body);
-        this.headers = extractHeaders(req);
+        this.body = readBody(req, maxBodyBytes);
+        this.format = PayloadFormat.fromContentType(req.getContentType());
+        this.rawResponseAccepted =
+                PayloadFormat.acceptsWireFormat(req.getHeader(HttpHeaders.ACCEPT));
+        this.ifNoneMatch = req.getHeader(HttpHeaders.IF_NONE_MATCH);
+        this.parameters = extractParameters(req);
+        this.httpHeaders = extractHttpHeaders(req);
+        this.headers = extractHeaders(parameters, httpHeaders);
     }
 
     /**
-     * Time body bytes to the same size declared on header.
+     * Constructor. Creates a new Request out of already extracted components, used when request is
+     * not based on servlet API.
      *
-     * @param req servlet request;
+     * @param method http request method;
+     * @param path request path;
      * @param body body bytes;
-     * @return trimmed body bytes;
-     * @throws IOException on buffer copy error;
+     * @param parameters request parameters;
+     * @param headers http request headers;
      */
-    private byte[] trimBody(HttpServletRequest req, byte[] body) throws IOException {
-        var length = req.getContentLength();
-        var bos = new ByteArrayOutputStream(length >= 0 ? length : StreamUtils.BUFFER_SIZE);
+    public Request(
+            String method,
+            String path,
+            byte[] body,
+            Map<String, String> parameters,
+            HttpHeaders headers) {
+        this.method = method;
+        this.path = path;
+        this.body = body != null ? body : "{}".getBytes();
+        this.format = body != null ?
+                PayloadFormat.fromContentType(headers.getFirst(HttpHeaders.CONTENT_TYPE)) :
+                PayloadFormat.JSON;
+        this.rawResponseAccepted =
+                PayloadFormat.acceptsWireFormat(headers.getFirst(HttpHeaders.ACCEPT));
+        this.ifNoneMatch = headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+        this.parameters = parameters;
+        this.httpHeaders = new LinkedCaseInsensitiveMap<>(Locale.ENGLISH);
+        this.httpHeaders.putAll(headers.toSingleValueMap());
+        this.headers = extractHeaders(parameters, httpHeaders);
+    }
 
-        StreamUtils.copy(body, bos);
+    /**
+     * Read body from servlet input stream. When content-length is informed, it's checked against
+     * maximum size before reading, and the body is read straight into an array of that size.
+     * Otherwise, reading stops as soon as maximum size is exceeded.
+     *
+     * @param req servlet request;
+     * @param maxBodyBytes maximum body size;
+     * @return body bytes;
+     * @throws IOException on reading input stream, or body shorter than content-length;
+     * @throws RouterRoutePayloadTooLargeException when body is larger than maximum size;
+     */
+    private byte[] readBody(HttpServletRequest req, int maxBodyBytes) throws
+            IOException, RouterRoutePayloadTooLargeException {
+        var length = req.getContentLengthLong();
 
-        return bos.toByteArray();
+        checkBodySize(length, maxBodyBytes);
+
+        var in = req.getInputStream();
+        if (length >= 0) {
+            var body = new byte[(int) length];
+            if (in.readNBytes(body, 0, body.length) < body.length) {
+                throw new IOException(String.format(
+                        "body is shorter than content-length '%d'", length));
+            }
+            return body;
+        }
+
+        // reading one byte beyond maximum, capped at the largest array size
+        var body = in.readNBytes(Math.min(maxBodyBytes, MAX_ARRAY_SIZE - 1) + 1);
+        checkBodySize(body.length, maxBodyBytes);
+        return body;
     }
 
     /**
-     * Extract request headers and parameters from request, preparing data to become Kafka headers.
+     * Check body size against maximum.
+     *
+     * @param length body length;
+     * @param maxBodyBytes maximum body size;
+     * @throws RouterRoutePayloadTooLargeException when body is larger than maximum size;
+     */
+    public static void checkBodySize(long length, int maxBodyBytes) throws
+            RouterRoutePayloadTooLargeException {
+        if (length > maxBodyBytes) {
+            throw new RouterRoutePayloadTooLargeException(String.format(
+                    "request body of '%d' bytes is larger than '%d' bytes", length,
+                    maxBodyBytes));
+        }
+    }
+
+    /**
+     * Key identifying equivalent requests, made of method, path, raw response acceptance, and the
+     * values of informed names, looked up on http headers, ignoring case, and then on request
+     * parameters. Requests differing on those values never share the same key.
+     *
+     * @param names header and parameter names composing the key;
+     * @return String key;
+     */
+    public String key(List<String> names) {
+        var key = new StringBuilder()
+                .append(method).append(' ')
+                .append(path).append(' ')
+                .append(rawResponseAccepted);
+
+        for (String name : names) {
+            var value = httpHeaders.get(name);
+
+            if (value == null) {
+                value = parameters.get(name);
+            }
+            key.append('\n').append(name).append('=').append(value);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Extract request parameters from servlet request, first value only.
+     *
+     * @param req servlet request;
+     * @return map with parameters;
+     */
+    private static Map<String, String> extractParameters(HttpServletRequest req) {
+        var parameters = new HashMap<String, String>();
+
+        Collections.list(req.getParameterNames())
+                .forEach(name -> parameters.put(name, req.getParameter(name)));
+        return parameters;
+    }
+
+    /**
+     * Extract http headers from servlet request, first value only, names are case-insensitive.
      *
      * @param req servlet request;
+     * @return map with headers;
+     */
+    private static Map<String, String> extractHttpHeaders(HttpServletRequest req) {
+        var headers = new LinkedCaseInsensitiveMap<String>(Locale.ENGLISH);
+
+        Collections.list(req.getHeaderNames())
+                .forEach(name -> headers.put(name, req.getHeader(name)));
+        return headers;
+    }
+
+    /**
+     * Prepare request parameters and headers to become Kafka headers, with the list of parameter
+     * and header names.
+     *
+     * @param parameters request parameters;
+     * @param headers http request headers;
      * @return prepared map with headers and parameters;
      */
-    private Map<String, String> extractHeaders(HttpServletRequest req) {
+    private Map<String, String> extractHeaders(
+            Map<String, String> parameters, Map<String, String> headers) {
         var h = new HashMap<String, String>();
-        var reqParamsNames = Collections.list(req.getParameterNames());
-        var reqHeadersNames = Collections.list(req.getHeaderNames());
 
-        // extract request parameters
-        h.put(RAVINE_REQUEST_PARAMETER_NAMES, StringUtils.join(reqParamsNames, SEPARATOR));
-        reqParamsNames.forEach(s -> h.put(s, req.getParameter(s)));
+        h.put(RAVINE_REQUEST_PARAMETER_NAMES, StringUtils.join(parameters.keySet(), SEPARATOR));
+        h.putAll(parameters);
 
-        // extract request headers
-        h.put(RAVINE_REQUEST_HEADER_NAMES, StringUtils.join(reqHeadersNames, SEPARATOR));
-        reqHeadersNames.forEach(s -> h.put(s, req.getHeader(s)));
+        h.put(RAVINE_REQUEST_HEADER_NAMES, StringUtils.join(headers.keySet(), SEPARATOR));
+        h.putAll(headers);
 
         return h;
     }
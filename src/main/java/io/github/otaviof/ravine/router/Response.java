@@ -1,16 +1,28 @@
 package io.github.otaviof.ravine.router;
 
 import io.github.otaviof.ravine.config.ResponseConfig;
+import io.github.otaviof.ravine.kafka.AvroWireFormat;
+import io.github.otaviof.ravine.kafka.PayloadFormat;
 import lombok.Getter;
+import org.apache.avro.generic.GenericRecord;
 
 /**
- * Wrapper to save results of a given endpoint route.
+ * Wrapper to save results of a given endpoint route. The payload is either a configured string, the
+ * response record, rendered as JSON when written to the client, or the response record bytes as
+ * consumed from Kafka, for raw responses.
  */
 @Getter
 public class Response {
+    public static final String SCHEMA_ID_HEADER = "Ravine-Schema-Id";
+
     private int statusCode;
     private String contentType;
     private String payload;
+    private GenericRecord record;
+    private byte[] raw;
+    private Integer schemaId;
+    private String eTag;
+    private long lastModified = -1;
 
     public Response(int statusCode, String contentType, String payload) {
         this.statusCode = statusCode;
@@ -18,9 +30,51 @@ public class Response {
         this.payload = payload;
     }
 
+    public Response(int statusCode, String contentType, GenericRecord record) {
+        this.statusCode = statusCode;
+        this.contentType = contentType;
+        this.record = record;
+    }
+
+    public Response(int statusCode, byte[] raw) {
+        this(statusCode, PayloadFormat.AVRO_WIRE_FORMAT_VALUE, raw, AvroWireFormat.schemaId(raw));
+    }
+
+    Response(int statusCode, String contentType, byte[] raw, Integer schemaId) {
+        this.statusCode = statusCode;
+        this.contentType = contentType;
+        this.raw = raw;
+        this.schemaId = schemaId;
+    }
+
     public Response(ResponseConfig responseConfig) {
         this.statusCode = responseConfig.getHttpCode();
         this.contentType = responseConfig.getContentType();
         this.payload = responseConfig.getBody();
     }
+
+    /**
+     * Set cache validators, informed as ETag and Last-Modified headers.
+     *
+     * @param eTag entity tag, quoted;
+     * @param lastModified epoch milliseconds;
+     * @return this Response;
+     */
+    Response withValidators(String eTag, long lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        return this;
+    }
+
+    /**
+     * Response body, raw bytes or record when present, or string payload otherwise.
+     *
+     * @return Object;
+     */
+    public Object getBody() {
+        if (raw != null) {
+            return raw;
+        }
+        return record != null ? record : payload;
+    }
 }
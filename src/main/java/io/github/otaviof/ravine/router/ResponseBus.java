@@ -0,0 +1,120 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.config.Config;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatch bus between consumer threads and pending requests. Consumers offer response events on a
+ * bounded lock-free ring, and a single dispatcher thread hands them over to pending requests, which
+ * are completed on their own executor. When the ring is full offering fails, and consumers are
+ * expected to hold off consumption.
+ */
+@Component
+@Slf4j
+public class ResponseBus implements EventSink, Runnable {
+    private static final int SPINS = 100;
+
+    private final PendingRequests pendingRequests;
+    private final int retryAfterSeconds;
+    private final RingBuffer<Event> ring;
+    private final Thread thread;
+
+    private volatile boolean parked = false;
+    private volatile boolean running = true;
+
+    public ResponseBus(Config config, PendingRequests pendingRequests) {
+        this.pendingRequests = pendingRequests;
+        this.retryAfterSeconds = config.getExecutor().getRetryAfterSeconds();
+        this.ring = new RingBuffer<>(config.getBus().getCapacity());
+
+        log.info("Response bus with capacity for '{}' events", ring.capacity());
+        this.thread = new Thread(this, "ravine-response-bus");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Offer a response event to be dispatched, safe to be called by multiple consumer threads.
+     *
+     * @param event Event object;
+     * @return boolean, false when bus is full;
+     */
+    @Override
+    public boolean offer(Event event) {
+        if (!ring.offer(event)) {
+            return false;
+        }
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * Reject event, failing the pending request as overloaded.
+     *
+     * @param event Event object;
+     * @param reason rejection reason;
+     */
+    @Override
+    public void reject(Event event, String reason) {
+        log.error("Rejecting event with key '{}': '{}'", event.getK(), reason);
+        pendingRequests.fail(event.getK(),
+                new RouterRouteOverloadedException(reason, retryAfterSeconds));
+    }
+
+    /**
+     * Dispatcher loop, completes pending requests with response events. When idle, spins for a
+     * while and then parks until a new event is offered. The ring is checked again after flagging
+     * the thread as parked, so an event offered meanwhile either is seen here, or unparks it.
+     */
+    @Override
+    public void run() {
+        var idle = 0;
+
+        while (running) {
+            var event = ring.poll();
+
+            if (event != null) {
+                idle = 0;
+                dispatch(event);
+                continue;
+            }
+            if (++idle < SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            parked = true;
+            if (ring.size() == 0) {
+                LockSupport.park(this);
+            }
+            parked = false;
+        }
+    }
+
+    /**
+     * Complete pending request with event, errors are contained in order to keep dispatching.
+     *
+     * @param event Event object;
+     */
+    private void dispatch(Event event) {
+        try {
+            pendingRequests.complete(event);
+        } catch (Exception e) {
+            log.error("Error dispatching event with key '{}': '{}'", event.getK(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stop dispatcher thread.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+}
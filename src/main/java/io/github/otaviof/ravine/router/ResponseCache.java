@@ -0,0 +1,182 @@
+package io.github.otaviof.ravine.router;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.otaviof.ravine.config.CacheConfig;
+import io.github.otaviof.ravine.kafka.AvroJsonWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Response cache of a route. Responses are stored already rendered, so hits are served without
+ * touching Kafka, neither rendering records again. Entries are weighted by body size, but never
+ * less than the average size allowed per entry, therefore both maximum bytes and maximum entries
+ * are respected. Each entry carries an ETag, taken from body digest, and the time it was stored as
+ * Last-Modified. Statistics are exposed as "ravine.route.cache" metrics, tagged by route.
+ */
+@Slf4j
+class ResponseCache {
+    private static final String METRIC_NAME = "ravine.route.cache";
+
+    private final Cache<String, Entry> cache;
+
+    /**
+     * Constructor.
+     *
+     * @param route route name;
+     * @param cacheConfig route cache configuration;
+     * @param meterRegistry meter registry;
+     */
+    ResponseCache(String route, CacheConfig cacheConfig, MeterRegistry meterRegistry) {
+        var minWeight = (int) Math.max(1, cacheConfig.getMaxBytes() / cacheConfig.getMaxEntries());
+
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(cacheConfig.getTtlMs(), TimeUnit.MILLISECONDS)
+                .maximumWeight(cacheConfig.getMaxBytes())
+                .<String, Entry>weigher((key, entry) -> Math.max(minWeight, entry.weight(key)))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, METRIC_NAME, "route", route);
+    }
+
+    /**
+     * Look up cached response. When If-None-Match matches the entry ETag, a 304 response without
+     * body is returned.
+     *
+     * @param key cache key;
+     * @param ifNoneMatch If-None-Match header, or null;
+     * @return Response, or null on cache miss;
+     */
+    Response lookup(String key, String ifNoneMatch) {
+        var entry = cache.getIfPresent(key);
+
+        if (entry == null) {
+            return null;
+        }
+        if (matches(ifNoneMatch, entry.eTag)) {
+            log.debug("Cached response for '{}' is not modified", key);
+            return new Response(HttpStatus.NOT_MODIFIED.value(), entry.contentType, null, null)
+                    .withValidators(entry.eTag, entry.lastModified);
+        }
+        return entry.toResponse();
+    }
+
+    /**
+     * Store response in cache, only successful responses carrying a response record are cached.
+     *
+     * @param key cache key;
+     * @param response response to be cached;
+     * @return Response as cached, with validators, or the informed one when not cacheable;
+     */
+    Response store(String key, Response response) {
+        if (!HttpStatus.valueOf(response.getStatusCode()).is2xxSuccessful()) {
+            return response;
+        }
+
+        byte[] body;
+        if (response.getRaw() != null) {
+            body = response.getRaw();
+        } else if (response.getRecord() != null) {
+            body = render(response);
+        } else {
+            return response;
+        }
+        if (body == null) {
+            return response;
+        }
+
+        var entry = new Entry(response, body);
+        cache.put(key, entry);
+        return entry.toResponse();
+    }
+
+    /**
+     * Render response record as JSON.
+     *
+     * @param response response carrying a record;
+     * @return array of bytes, or null on error;
+     */
+    private byte[] render(Response response) {
+        var out = new ByteArrayOutputStream();
+
+        try {
+            AvroJsonWriter.write(response.getRecord(), out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            log.warn("Unable to render response for caching: '{}'", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Check If-None-Match header against entity tag, weak comparison is employed.
+     *
+     * @param ifNoneMatch If-None-Match header, or null;
+     * @param eTag entity tag;
+     * @return boolean;
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.trim();
+
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estimated size of cache, for testing.
+     *
+     * @return long;
+     */
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Cached response, already rendered.
+     */
+    private static class Entry {
+        private final int statusCode;
+        private final String contentType;
+        private final byte[] body;
+        private final Integer schemaId;
+        private final String eTag;
+        private final long lastModified;
+
+        Entry(Response response, byte[] body) {
+            this.statusCode = response.getStatusCode();
+            this.contentType = response.getContentType();
+            this.body = body;
+            this.schemaId = response.getSchemaId();
+            this.eTag = String.format("\"%s\"", DigestUtils.md5DigestAsHex(body));
+            this.lastModified = System.currentTimeMillis();
+        }
+
+        int weight(String key) {
+            return body.length + key.length();
+        }
+
+        Response toResponse() {
+            return new Response(statusCode, contentType, body, schemaId)
+                    .withValidators(eTag, lastModified);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.otaviof.ravine.router;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer, for multiple producers and a single consumer. Producers claim a
+ * slot by advancing the producer index, and the consumer releases slots in order, therefore offering
+ * fails right away when the ring is full, instead of blocking.
+ *
+ * @param <E> element type;
+ */
+class RingBuffer<E> {
+    private final AtomicReferenceArray<E> buffer;
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param capacity ring capacity, rounded up to a power of two;
+     */
+    RingBuffer(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * Offer a element, safe to be called by multiple threads.
+     *
+     * @param e element;
+     * @return boolean, false when ring is full;
+     */
+    boolean offer(E e) {
+        long index;
+
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+
+        buffer.set((int) (index & mask), e);
+        return true;
+    }
+
+    /**
+     * Poll a element, must be called by a single consumer thread. A slot claimed by a producer but
+     * not yet written is considered empty.
+     *
+     * @return element or null when empty;
+     */
+    E poll() {
+        var index = consumerIndex.get();
+        var slot = (int) (index & mask);
+        var e = buffer.get(slot);
+
+        if (e == null) {
+            return null;
+        }
+
+        buffer.lazySet(slot, null);
+        consumerIndex.lazySet(index + 1);
+        return e;
+    }
+
+    /**
+     * Amount of elements in the ring, approximate while producers are active.
+     *
+     * @return int;
+     */
+    int size() {
+        return (int) (producerIndex.get() - consumerIndex.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
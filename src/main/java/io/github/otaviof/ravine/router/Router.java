@@ -1,21 +1,25 @@
 package io.github.otaviof.ravine.router;
 
-import static org.awaitility.Awaitility.await;
-
 import io.github.otaviof.ravine.config.Config;
 import io.github.otaviof.ravine.config.ResponseConfig;
-import io.github.otaviof.ravine.config.RouteConfig;
 import io.github.otaviof.ravine.kafka.AvroProducerException;
 import io.github.otaviof.ravine.kafka.ConsumerGroup;
 import io.github.otaviof.ravine.kafka.ConsumerGroupException;
 import io.github.otaviof.ravine.kafka.ProducerGroup;
 import io.github.otaviof.ravine.kafka.ProducerGroupAvroConversionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.UnaryOperator;
 import lombok.extern.slf4j.Slf4j;
-import org.awaitility.core.ConditionTimeoutException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Router instance is responsible by handling sub-path events, and route requests on Kafka. It
@@ -24,42 +28,176 @@ import org.springframework.stereotype.Component;
 @Component
 @Slf4j
 public class Router {
-    private final Config config;
-    private final EventListener listener;
+    public static final String RAVINE_PATH_VARIABLE_NAMES = "ravine-path-variable-names";
+
+    private final RoutingTable routingTable;
+    private final SingleFlight<Response> singleFlight;
+    private final Map<String, ResponseCache> responseCaches;
+    private final AdmissionControl admissionControl;
+    private final PendingRequests pendingRequests;
     private final ProducerGroup producerGroup;
 
     public Router(
             Config config,
-            EventListener listener,
+            PendingRequests pendingRequests,
             ConsumerGroup consumerGroup,
-            ProducerGroup producerGroup) throws ConsumerGroupException {
-        this.config = config;
-        this.listener = listener;
+            ProducerGroup producerGroup,
+            MeterRegistry meterRegistry) throws ConsumerGroupException {
+        this.routingTable = new RoutingTable(config.getRoutes());
+        this.singleFlight = new SingleFlight<>();
+        this.responseCaches = new HashMap<>();
+        this.admissionControl = new AdmissionControl(config, meterRegistry);
+        this.pendingRequests = pendingRequests;
 
         consumerGroup.bootstrap();
         consumerGroup.waitForConsumers();
 
         this.producerGroup = producerGroup;
+
+        config.getRoutes().stream()
+                .filter(routeConfig -> routeConfig.getCache() != null)
+                .forEach(routeConfig -> responseCaches.put(
+                        routeConfig.getEndpoint().getPath(),
+                        new ResponseCache(
+                                routeConfig.getName(), routeConfig.getCache(), meterRegistry)));
     }
 
     /**
      * Handle a given route, by producing the payload on Kafka, given it's a valid Avro payload, and
-     * wait for message to arrive on output topic, or timeout.
+     * wait for message to arrive on output topic, or timeout. The calling thread is only held while
+     * enqueuing the record, the broker acknowledge is awaited in parallel with the response, and
+     * the response is delivered by the returned future. Routes without response topic configured
+     * as fire-and-forget are answered with 202 as soon as the record is enqueued. Response records
+     * are relayed as consumed, without decoding, when route is configured as passthrough, or when
+     * client accepts Confluent wire-format. Variables captured by route path template are
+     * forwarded as Kafka headers. On single-flight routes, concurrent identical GET requests share
+     * the same Kafka request. On cached routes, GET responses are served from cache while fresh,
+     * and answered with 304 when If-None-Match matches the cached ETag. Requests above the route,
+     * or instance, in-flight limit are rejected before producing.
      *
      * @param request ravine request;
-     * @return RouteConfig with event content and status-code;
+     * @return future Response with event content and status-code, completed exceptionally with
+     *         RouterRouteTimeoutException on timeout waiting for response, or AvroProducerException
+     *         on delivery failure;
      * @throws RouterRouteNotFoundException on not being able to route based on path;
      * @throws RouterRouteMethodNotAllowedException http request method is not configured on path;
+     * @throws RouterRouteOverloadedException when in-flight limit is reached;
      * @throws AvroProducerException error on producing a message;
-     * @throws RouterRouteTimeoutException timeout on waiting for response;
+     * @throws ProducerGroupAvroConversionException on converting payload to Avro;
      */
-    public Response route(Request request) throws
+    public CompletableFuture<Response> route(Request request) throws
             RouterRouteNotFoundException,
             RouterRouteMethodNotAllowedException,
+            RouterRouteOverloadedException,
+            AvroProducerException,
+            ProducerGroupAvroConversionException {
+        var match = prepare(request.getMethod(), request.getPath());
+        var routeConfig = match.getRouteConfig();
+        var cache = responseCaches.get(routeConfig.getEndpoint().getPath());
+
+        if (cache == null || !HttpMethod.GET.name().equals(request.getMethod())) {
+            return coalesce(request, match, UnaryOperator.identity());
+        }
+
+        var key = request.key(routeConfig.getCache().getKeys());
+        var cached = cache.lookup(key, request.getIfNoneMatch());
+        if (cached != null) {
+            log.info("Serving cached response for path '{}'", request.getPath());
+            return CompletableFuture.completedFuture(cached);
+        }
+        return coalesce(request, match, response -> cache.store(key, response));
+    }
+
+    /**
+     * Dispatch request, joining an identical GET request in flight when route is single-flight.
+     * The response is finished once, by the request actually dispatched, and followers share the
+     * finished response.
+     *
+     * @param request ravine request;
+     * @param match routing table match;
+     * @param finisher applied on response as it arrives, for instance to store it in cache;
+     * @return future Response;
+     * @throws RouterRouteOverloadedException when in-flight limit is reached;
+     * @throws AvroProducerException error on producing a message;
+     * @throws ProducerGroupAvroConversionException on converting payload to Avro;
+     */
+    private CompletableFuture<Response> coalesce(
+            Request request,
+            RoutingTable.Match match,
+            UnaryOperator<Response> finisher) throws
+            RouterRouteOverloadedException,
+            AvroProducerException,
+            ProducerGroupAvroConversionException {
+        var singleFlightConfig = match.getRouteConfig().getEndpoint().getSingleFlight();
+
+        if (!singleFlightConfig.isEnabled() || !HttpMethod.GET.name().equals(request.getMethod())) {
+            return dispatch(request, match).thenApply(finisher);
+        }
+
+        var flight = singleFlight.acquire(request.key(singleFlightConfig.getKeys()));
+        if (!flight.isLeader()) {
+            log.info("Joining in-flight request for path '{}'", request.getPath());
+            return flight.getFuture();
+        }
+
+        try {
+            flight.complete(dispatch(request, match).thenApply(finisher));
+        } catch (RouterRouteOverloadedException
+                | AvroProducerException
+                | ProducerGroupAvroConversionException
+                | RuntimeException e) {
+            // releasing the key, followers already attached get the same error
+            flight.fail(e);
+            throw e;
+        }
+        return flight.getFuture();
+    }
+
+    /**
+     * Take an in-flight permit and dispatch the request, the permit is released when the request is
+     * done, either successfully or not. Round-trip time, from produce to response, feeds the route
+     * adaptive limit, so excess requests are shed before producing.
+     *
+     * @param request ravine request;
+     * @param match routing table match;
+     * @return future Response;
+     * @throws RouterRouteOverloadedException when in-flight limit is reached;
+     * @throws AvroProducerException error on producing a message;
+     * @throws ProducerGroupAvroConversionException on converting payload to Avro;
+     */
+    private CompletableFuture<Response> dispatch(Request request, RoutingTable.Match match) throws
+            RouterRouteOverloadedException,
+            AvroProducerException,
+            ProducerGroupAvroConversionException {
+        var permit = admissionControl.acquire(match.getRouteConfig());
+        CompletableFuture<Response> future;
+
+        try {
+            future = produce(request, match);
+        } catch (AvroProducerException
+                | ProducerGroupAvroConversionException
+                | RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+        return future.whenComplete((response, e) -> permit.release(e));
+    }
+
+    /**
+     * Produce request message, and wait for response message when route has a response topic.
+     *
+     * @param request ravine request;
+     * @param match routing table match;
+     * @return future Response;
+     * @throws AvroProducerException error on producing a message;
+     * @throws ProducerGroupAvroConversionException on converting payload to Avro;
+     */
+    private CompletableFuture<Response> produce(Request request, RoutingTable.Match match) throws
             AvroProducerException,
-            RouterRouteTimeoutException,
             ProducerGroupAvroConversionException {
-        var routeConfig = prepare(request.getMethod(), request.getPath());
+        var routeConfig = match.getRouteConfig();
+        var routePath = routeConfig.getEndpoint().getPath();
+        var headers = headers(request, match);
         var responseConfig = routeConfig.getEndpoint().getResponse() != null ?
                 routeConfig.getEndpoint().getResponse() : new ResponseConfig();
         var uuid = UUID.randomUUID().toString();
@@ -67,72 +205,118 @@ public class Router {
         log.info("Routing request '{}' for path '{}' ({} bytes)",
                 request.getMethod(), request.getPath(), request.getBody().length);
 
-        producerGroup.send(request.getPath(), uuid, request.getBody(), request.getHeaders());
-
         if (routeConfig.getResponse() == null) {
             log.info("Empty response topic, therefore just dispatching event.");
-            return new Response(responseConfig);
+            var sent = producerGroup.send(
+                    routePath, uuid, request.getBody(), request.getFormat(), headers);
+
+            if (routeConfig.getRequest().isFireAndForget()) {
+                return CompletableFuture.completedFuture(new Response(
+                        HttpStatus.ACCEPTED.value(),
+                        responseConfig.getContentType(),
+                        responseConfig.getBody()));
+            }
+            return sent.thenApply(metadata -> new Response(responseConfig));
         }
 
-        return new Response(
-                responseConfig.getHttpCode(),
-                responseConfig.getContentType(),
-                waitForResponse(request.getPath(), uuid, routeConfig.getResponse().getTimeoutMs()));
+        // registering before producing, response event may arrive before send returns
+        var timeout = routeConfig.getResponse().getTimeoutMs();
+        var raw = responseConfig.isPassthrough() || request.isRawResponseAccepted();
+        var future = pendingRequests.register(uuid, request.getPath(), timeout, raw);
+
+        try {
+            producerGroup.send(routePath, uuid, request.getBody(), request.getFormat(), headers)
+                    .whenComplete((metadata, e) -> {
+                        if (e != null) {
+                            pendingRequests.fail(uuid, e);
+                        }
+                    });
+        } catch (AvroProducerException | ProducerGroupAvroConversionException e) {
+            pendingRequests.remove(uuid);
+            throw e;
+        }
+
+        log.info("Waiting for '{}' ms for UUID '{}' to come back...", timeout, uuid);
+
+        return future.thenApply(event -> event.getRaw() != null ?
+                new Response(responseConfig.getHttpCode(), event.getRaw()) :
+                new Response(
+                        responseConfig.getHttpCode(),
+                        responseConfig.getContentType(),
+                        event.getV()));
     }
 
     /**
-     * Waiting for a response event to arrive within timeout.
+     * Reactive flavor of route method, errors are propagated as Mono errors. Routing takes place on
+     * elastic scheduler, since converting the payload is CPU bound, and producing may block up to
+     * "max.block.ms" waiting for metadata or room on producer buffer, so event-loop threads are not
+     * held. Response is published on parallel scheduler, so rendering it does not hold the thread
+     * completing requests.
      *
-     * @param path request path;
-     * @param uuid event key;
-     * @param timeout ms to wait;
-     * @return String with event content;
-     * @throws RouterRouteTimeoutException on timeout;
+     * @param request ravine request;
+     * @return Mono with Response;
      */
-    private String waitForResponse(String path, String uuid, int timeout) throws
-            RouterRouteTimeoutException {
-        log.info("Waiting for '{}' ms for UUID '{}' to come back...", timeout, uuid);
-
-        try {
-            await().atMost(timeout, TimeUnit.MILLISECONDS).until(() -> listener.inCache(uuid));
-            return listener.getEvent(uuid).getV().toString();
-        } catch (ConditionTimeoutException e) {
-            var msg = String
-                    .format("No response-event after '%d' ms for path '%s'.", timeout, path);
-            log.error(msg);
-            throw new RouterRouteTimeoutException(msg);
-        }
+    public Mono<Response> routeReactive(Request request) {
+        return Mono.defer(() -> {
+            try {
+                return Mono.fromFuture(route(request));
+            } catch (RouterRouteNotFoundException
+                    | RouterRouteMethodNotAllowedException
+                    | RouterRouteOverloadedException
+                    | AvroProducerException
+                    | ProducerGroupAvroConversionException e) {
+                return Mono.error(e);
+            }
+        }).subscribeOn(Schedulers.elastic())
+                .publishOn(Schedulers.parallel())
+                .onErrorMap(CompletionException.class, Throwable::getCause);
     }
 
     /**
-     * Load configuration for route, and check if method in use is allowed.
+     * Look up route on routing table, and check if method in use is allowed.
      *
      * @param method http request method;
-     * @param path route path;
-     * @return RouteConfig for path;
+     * @param path request path;
+     * @return routing table match for path;
      * @throws RouterRouteNotFoundException on not being able to route based on path;
      * @throws RouterRouteMethodNotAllowedException when not part of route config;
      */
-    private RouteConfig prepare(String method, String path) throws
+    private RoutingTable.Match prepare(String method, String path) throws
             RouterRouteMethodNotAllowedException,
             RouterRouteNotFoundException {
-        var routeConfig = config.getRouteByPath(path);
+        var match = routingTable.lookup(path);
 
-        if (path == null || path.isEmpty() || routeConfig == null) {
+        if (match == null) {
             log.warn("Path '{}' is not found!", path);
             throw new RouterRouteNotFoundException(
                     String.format("route for path '%s' is not found", path));
         }
-
-        var allowedMethods = routeConfig.getEndpoint().getMethods().stream()
-                        .map(String::toLowerCase)
-                        .collect(Collectors.toList());
-
-        if (!allowedMethods.contains(method.toLowerCase())) {
+        if (!match.allows(method)) {
             throw new RouterRouteMethodNotAllowedException(
                     String.format("method '%s' is not allowed on path '%s'", method, path));
         }
 
-        return routeConfig;
+        return match;
+    }
+
+    /**
+     * Kafka headers for request, adding path template variables when present, in the same fashion
+     * as request parameters.
+     *
+     * @param request ravine request;
+     * @param match routing table match;
+     * @return Map with headers;
+     */
+    private Map<String, String> headers(Request request, RoutingTable.Match match) {
+        var variables = match.getVariables();
+
+        if (variables.isEmpty()) {
+            return request.getHeaders();
+        }
+
+        var h = new HashMap<>(request.getHeaders());
+        h.put(RAVINE_PATH_VARIABLE_NAMES, String.join(Request.SEPARATOR, variables.keySet()));
+        h.putAll(variables);
+        return h;
     }
 }
@@ -0,0 +1,16 @@
+package io.github.otaviof.ravine.router;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+@Getter
+public class RouterRouteOverloadedException extends Exception {
+    private final int retryAfterSeconds;
+
+    public RouterRouteOverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.otaviof.ravine.router;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class RouterRoutePayloadTooLargeException extends Exception {
+    public RouterRoutePayloadTooLargeException(String message) {
+        super(message);
+    }
+}
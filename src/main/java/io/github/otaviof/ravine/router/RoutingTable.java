@@ -0,0 +1,285 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.config.RouteConfig;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Routing table compiled from configuration at startup. Route paths are organized in a trie keyed
+ * on path segments, where template segments, like "{id}" in "/orders/{id}", match any non-empty
+ * segment. Literal segments take precedence over templates. Lookups walk the trie comparing request
+ * path regions in place, so it takes O(path length) without allocating, except for collecting the
+ * variables of template routes. Allowed methods are kept as bitmasks.
+ */
+@Slf4j
+class RoutingTable {
+    private static final char SEPARATOR = '/';
+
+    private final Node root;
+
+    RoutingTable(List<RouteConfig> routes) {
+        this.root = new Node();
+
+        for (RouteConfig route : routes) {
+            if (route.getEndpoint() != null && route.getEndpoint().getPath() != null) {
+                add(new Route(route));
+            }
+        }
+        root.freeze();
+    }
+
+    /**
+     * Add route on the trie, following its template segments.
+     *
+     * @param route compiled route;
+     */
+    private void add(Route route) {
+        var node = root;
+
+        for (String segment : route.segments) {
+            node = isVariable(segment) ? node.paramChild() : node.literalChild(segment);
+        }
+        if (node.route != null) {
+            log.warn("Path '{}' is defined more than once, using route '{}'", route.path,
+                    node.route.getRouteConfig().getName());
+            return;
+        }
+        node.route = route;
+    }
+
+    /**
+     * Look up route matching request path.
+     *
+     * @param path request path;
+     * @return Match, or null when no route matches;
+     */
+    Match lookup(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != SEPARATOR) {
+            return null;
+        }
+
+        var route = find(root, path, 1);
+        return route != null ? route.match(path) : null;
+    }
+
+    /**
+     * Depth-first search on trie, trying literal child before template child on each segment.
+     *
+     * @param node current node;
+     * @param path request path;
+     * @param start current segment start index;
+     * @return Route, or null;
+     */
+    private static Route find(Node node, String path, int start) {
+        if (start > path.length()) {
+            return node.route;
+        }
+
+        var end = segmentEnd(path, start);
+        var literal = node.literal(path, start, end);
+
+        if (literal != null) {
+            var route = find(literal, path, end + 1);
+            if (route != null) {
+                return route;
+            }
+        }
+        if (node.param != null && end > start) {
+            return find(node.param, path, end + 1);
+        }
+        return null;
+    }
+
+    private static int segmentEnd(String path, int start) {
+        var end = path.indexOf(SEPARATOR, start);
+        return end < 0 ? path.length() : end;
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    /**
+     * Hash of a string region, equivalent to String.hashCode when region is the whole string.
+     */
+    private static int hash(String s, int start, int end) {
+        var h = 0;
+
+        for (var i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Bitmask of a HTTP method, zero when unknown.
+     *
+     * @param method method name;
+     * @return int bitmask;
+     */
+    private static int methodBit(String method) {
+        var httpMethod = HttpMethod.resolve(method);
+
+        if (httpMethod == null) {
+            httpMethod = HttpMethod.resolve(method.toUpperCase());
+        }
+        return httpMethod != null ? 1 << httpMethod.ordinal() : 0;
+    }
+
+    /**
+     * Result of a lookup, route configuration and the variables captured from request path.
+     */
+    @Getter
+    static class Match {
+        private final RouteConfig routeConfig;
+        private final Map<String, String> variables;
+        private final int methods;
+
+        private Match(RouteConfig routeConfig, Map<String, String> variables, int methods) {
+            this.routeConfig = routeConfig;
+            this.variables = variables;
+            this.methods = methods;
+        }
+
+        /**
+         * Check if method is allowed on route.
+         *
+         * @param method http request method;
+         * @return boolean;
+         */
+        boolean allows(String method) {
+            return (methods & methodBit(method)) != 0;
+        }
+    }
+
+    /**
+     * Compiled route, template segments and allowed methods.
+     */
+    private static class Route {
+        private final String path;
+        private final String[] segments;
+        private final boolean template;
+        private final Match exact;
+
+        Route(RouteConfig routeConfig) {
+            var methods = 0;
+
+            for (String method : routeConfig.getEndpoint().getMethods()) {
+                methods |= methodBit(method);
+            }
+
+            this.path = routeConfig.getEndpoint().getPath();
+            this.segments = path.substring(1).split(String.valueOf(SEPARATOR), -1);
+            this.template = Arrays.stream(segments).anyMatch(RoutingTable::isVariable);
+            this.exact = new Match(routeConfig, Collections.emptyMap(), methods);
+        }
+
+        RouteConfig getRouteConfig() {
+            return exact.getRouteConfig();
+        }
+
+        /**
+         * Match request path, which is known to fit route segments, capturing template variables.
+         *
+         * @param requestPath request path;
+         * @return Match;
+         */
+        Match match(String requestPath) {
+            if (!template) {
+                return exact;
+            }
+
+            var variables = new LinkedHashMap<String, String>();
+            var start = 1;
+
+            for (String segment : segments) {
+                var end = segmentEnd(requestPath, start);
+
+                if (isVariable(segment)) {
+                    variables.put(segment.substring(1, segment.length() - 1),
+                            requestPath.substring(start, end));
+                }
+                start = end + 1;
+            }
+            return new Match(exact.getRouteConfig(), variables, exact.getMethods());
+        }
+    }
+
+    /**
+     * Trie node, literal children are kept in a open-addressing table after freeze.
+     */
+    private static class Node {
+        private Map<String, Node> building = new HashMap<>();
+        private String[] keys;
+        private Node[] children;
+        private Node param;
+        private Route route;
+
+        Node literalChild(String segment) {
+            return building.computeIfAbsent(segment, s -> new Node());
+        }
+
+        Node paramChild() {
+            if (param == null) {
+                param = new Node();
+            }
+            return param;
+        }
+
+        /**
+         * Turn children map into open-addressing table, with at most half of slots in use.
+         */
+        void freeze() {
+            if (!building.isEmpty()) {
+                var size = Integer.highestOneBit(building.size() * 2 - 1) << 1;
+
+                keys = new String[size];
+                children = new Node[size];
+                building.forEach((segment, child) -> {
+                    var i = hash(segment, 0, segment.length()) & (keys.length - 1);
+                    while (keys[i] != null) {
+                        i = (i + 1) & (keys.length - 1);
+                    }
+                    keys[i] = segment;
+                    children[i] = child;
+                    child.freeze();
+                });
+            }
+            if (param != null) {
+                param.freeze();
+            }
+            building = null;
+        }
+
+        /**
+         * Find literal child matching path region.
+         *
+         * @param path request path;
+         * @param start segment start index;
+         * @param end segment end index;
+         * @return Node, or null;
+         */
+        Node literal(String path, int start, int end) {
+            if (keys == null) {
+                return null;
+            }
+
+            var length = end - start;
+            var mask = keys.length - 1;
+
+            for (var i = hash(path, start, end) & mask; keys[i] != null; i = (i + 1) & mask) {
+                if (keys[i].length() == length && path.regionMatches(start, keys[i], 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+}
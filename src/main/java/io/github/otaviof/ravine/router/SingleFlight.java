@@ -0,0 +1,96 @@
+package io.github.otaviof.ravine.router;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces concurrent calls sharing the same key. The first caller leads the call, and callers
+ * arriving while it's in-flight follow it, receiving the same outcome. The key is released as soon
+ * as the call completes, so outcomes are never reused by later callers.
+ *
+ * @param <V> call result type;
+ */
+class SingleFlight<V> {
+    private final Map<String, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Join in-flight call for key, or lead a new one.
+     *
+     * @param key call key;
+     * @return Flight;
+     */
+    Flight<V> acquire(String key) {
+        var leader = new CompletableFuture<V>();
+        var existing = calls.putIfAbsent(key, leader);
+
+        if (existing != null) {
+            // followers get their own future, so cancelling one does not affect others
+            return new Flight<>(this, key, existing.thenApply(v -> v), false);
+        }
+        return new Flight<>(this, key, leader, true);
+    }
+
+    /**
+     * Amount of calls in-flight.
+     *
+     * @return int;
+     */
+    int size() {
+        return calls.size();
+    }
+
+    /**
+     * A call, as seen by leader or followers.
+     *
+     * @param <V> call result type;
+     */
+    static class Flight<V> {
+        private final SingleFlight<V> group;
+        private final String key;
+        private final CompletableFuture<V> future;
+        private final boolean leader;
+
+        private Flight(SingleFlight<V> group, String key, CompletableFuture<V> future,
+                boolean leader) {
+            this.group = group;
+            this.key = key;
+            this.future = future;
+            this.leader = leader;
+        }
+
+        boolean isLeader() {
+            return leader;
+        }
+
+        CompletableFuture<V> getFuture() {
+            return future;
+        }
+
+        /**
+         * Leader hands over call outcome, released for new calls before followers are completed.
+         *
+         * @param outcome call outcome;
+         */
+        void complete(CompletableFuture<V> outcome) {
+            outcome.whenComplete((v, e) -> {
+                group.calls.remove(key, future);
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(v);
+                }
+            });
+        }
+
+        /**
+         * Leader failed to start the call.
+         *
+         * @param e failure cause;
+         */
+        void fail(Throwable e) {
+            group.calls.remove(key, future);
+            future.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.otaviof.ravine.router;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hashed timing wheel to expire pending requests. Scheduling and cancelling are O(1), requests are
+ * handed over to the wheel thread using lock-free intrusive stacks, and buckets are intrusive
+ * doubly-linked lists, therefore no allocation takes place per request.
+ */
+@Slf4j
+public class TimingWheel implements Runnable {
+    private final long tickNanos;
+    private final int mask;
+    private final PendingRequest[] buckets;
+    private final Consumer<PendingRequest> onExpire;
+
+    private final AtomicReference<PendingRequest> scheduled = new AtomicReference<>();
+    private final AtomicReference<PendingRequest> cancelled = new AtomicReference<>();
+
+    private final Thread thread;
+    private final long startTime;
+    private volatile boolean running = true;
+    private long tick = 0;
+
+    /**
+     * Constructor, starts the wheel thread right away.
+     *
+     * @param tickMs tick duration in milliseconds;
+     * @param ticksPerWheel amount of buckets, rounded up to a power of two;
+     * @param onExpire invoked from wheel thread for each expired request;
+     */
+    public TimingWheel(int tickMs, int ticksPerWheel, Consumer<PendingRequest> onExpire) {
+        var size = Integer.highestOneBit(Math.max(ticksPerWheel - 1, 1)) << 1;
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.mask = size - 1;
+        this.buckets = new PendingRequest[size];
+        this.onExpire = onExpire;
+        this.startTime = System.nanoTime();
+
+        log.info("Timing-wheel with '{}' buckets of '{}' ms", size, tickMs);
+        this.thread = new Thread(this, "ravine-timing-wheel");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Schedule a pending request expiration, on its deadline.
+     *
+     * @param request pending request;
+     */
+    public void schedule(PendingRequest request) {
+        push(scheduled, request, true);
+    }
+
+    /**
+     * Cancel pending request expiration, it's unlinked from the wheel on next tick.
+     *
+     * @param request pending request;
+     */
+    public void cancel(PendingRequest request) {
+        request.cancelled = true;
+        push(cancelled, request, false);
+    }
+
+    /**
+     * Stop wheel thread, pending requests are left as is.
+     */
+    public void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    /**
+     * Push request on informed intrusive stack.
+     *
+     * @param stack stack head;
+     * @param request pending request;
+     * @param isScheduled when true using scheduled link, cancelled link otherwise;
+     */
+    private void push(
+            AtomicReference<PendingRequest> stack, PendingRequest request, boolean isScheduled) {
+        PendingRequest head;
+
+        do {
+            head = stack.get();
+            if (isScheduled) {
+                request.nextScheduled = head;
+            } else {
+                request.nextCancelled = head;
+            }
+        } while (!stack.compareAndSet(head, request));
+    }
+
+    /**
+     * Wheel thread loop, on every tick new requests are placed in buckets, cancelled requests are
+     * unlinked, and current bucket is expired.
+     */
+    @Override
+    public void run() {
+        while (running) {
+            waitForNextTick();
+
+            transferScheduled();
+            removeCancelled();
+            expireBucket((int) (tick & mask));
+
+            tick++;
+        }
+    }
+
+    /**
+     * Sleep until the next tick deadline.
+     */
+    private void waitForNextTick() {
+        var deadline = startTime + (tick + 1) * tickNanos;
+
+        for (var now = System.nanoTime(); now < deadline && running; now = System.nanoTime()) {
+            LockSupport.parkNanos(this, deadline - now);
+        }
+    }
+
+    /**
+     * Place newly scheduled requests in their bucket.
+     */
+    private void transferScheduled() {
+        var request = scheduled.getAndSet(null);
+
+        while (request != null) {
+            var nextRequest = request.nextScheduled;
+            request.nextScheduled = null;
+
+            if (!request.cancelled && !request.isDone()) {
+                var ticks = Math.max((request.deadline - startTime) / tickNanos, tick);
+
+                request.rounds = (ticks - tick) / buckets.length;
+                link(request, (int) (ticks & mask));
+            }
+            request = nextRequest;
+        }
+    }
+
+    /**
+     * Unlink cancelled requests from their buckets.
+     */
+    private void removeCancelled() {
+        var request = cancelled.getAndSet(null);
+
+        while (request != null) {
+            var nextRequest = request.nextCancelled;
+            request.nextCancelled = null;
+
+            if (request.bucket >= 0) {
+                unlink(request);
+            }
+            request = nextRequest;
+        }
+    }
+
+    /**
+     * Expire requests in bucket that are due in the current round.
+     *
+     * @param index bucket index;
+     */
+    private void expireBucket(int index) {
+        var request = buckets[index];
+
+        while (request != null) {
+            var nextRequest = request.next;
+
+            if (request.rounds > 0) {
+                request.rounds--;
+            } else {
+                unlink(request);
+                onExpire.accept(request);
+            }
+            request = nextRequest;
+        }
+    }
+
+    /**
+     * Add request at the head of bucket list.
+     *
+     * @param request pending request;
+     * @param index bucket index;
+     */
+    private void link(PendingRequest request, int index) {
+        var head = buckets[index];
+
+        request.bucket = index;
+        request.prev = null;
+        request.next = head;
+        if (head != null) {
+            head.prev = request;
+        }
+        buckets[index] = request;
+    }
+
+    /**
+     * Remove request from its bucket list.
+     *
+     * @param request pending request;
+     */
+    private void unlink(PendingRequest request) {
+        if (request.prev != null) {
+            request.prev.next = request.next;
+        } else {
+            buckets[request.bucket] = request.next;
+        }
+        if (request.next != null) {
+            request.next.prev = request.prev;
+        }
+
+        request.bucket = -1;
+        request.prev = null;
+        request.next = null;
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.config.AdaptiveLimitConfig;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Adaptive concurrency limit based on TCP Vegas congestion avoidance. The lowest round-trip time
+ * observed is taken as unloaded latency, and the queue formed downstream is estimated out of the
+ * ratio between unloaded and current round-trip times. Limit grows while the estimated queue is
+ * small, and shrinks when the queue grows or requests time out. Unloaded latency is probed again
+ * from time to time, so the limit follows downstream capacity changes.
+ */
+class VegasLimit {
+    private static final int PROBE_MULTIPLIER = 30;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+
+    private volatile double estimatedLimit;
+    private long rttNoLoad = 0;
+    private long probeCount = 0;
+    private double probeJitter;
+
+    /**
+     * Constructor.
+     *
+     * @param adaptiveLimitConfig adaptive limit configuration;
+     */
+    VegasLimit(AdaptiveLimitConfig adaptiveLimitConfig) {
+        this.minLimit = adaptiveLimitConfig.getMinLimit();
+        this.maxLimit = adaptiveLimitConfig.getMaxLimit();
+        this.smoothing = adaptiveLimitConfig.getSmoothing();
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                adaptiveLimitConfig.getInitialLimit()));
+        resetProbeJitter();
+    }
+
+    /**
+     * Current limit.
+     *
+     * @return int;
+     */
+    int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    /**
+     * Update limit with a round-trip sample.
+     *
+     * @param rttNanos round-trip time in nanoseconds;
+     * @param inFlight requests in flight when request started;
+     * @param dropped request timed out waiting for response;
+     */
+    synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        var limit = estimatedLimit;
+
+        probeCount++;
+        if (probeCount >= probeJitter * PROBE_MULTIPLIER * limit) {
+            probeCount = 0;
+            resetProbeJitter();
+            rttNoLoad = rttNanos;
+            return;
+        }
+        if (rttNoLoad == 0 || rttNanos < rttNoLoad) {
+            rttNoLoad = rttNanos;
+            return;
+        }
+
+        double newLimit;
+        if (dropped) {
+            newLimit = limit - log10(limit);
+        } else if (inFlight * 2 < limit) {
+            // not using the current limit, no evidence to increase it
+            return;
+        } else {
+            var queueSize = Math.ceil(limit * (1 - (double) rttNoLoad / rttNanos));
+            var threshold = log10(limit);
+
+            if (queueSize <= threshold) {
+                newLimit = limit + 6 * threshold;
+            } else if (queueSize < 3 * threshold) {
+                newLimit = limit + threshold;
+            } else if (queueSize > 6 * threshold) {
+                newLimit = limit - threshold;
+            } else {
+                return;
+            }
+        }
+
+        newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        estimatedLimit = (1 - smoothing) * limit + smoothing * newLimit;
+    }
+
+    /**
+     * Logarithm of limit, not less than one, so small limits are still able to move.
+     *
+     * @param limit current limit;
+     * @return double;
+     */
+    private static double log10(double limit) {
+        return Math.max(1, Math.floor(Math.log10(limit)));
+    }
+
+    private void resetProbeJitter() {
+        probeJitter = ThreadLocalRandom.current().nextDouble(0.5, 1);
+    }
+}
@@ -40,4 +40,26 @@ class ConfigTest {
         Assertions.assertThat(responseKafkaRouteConfigs).isNotNull().isNotEmpty();
         Assertions.assertThat(responseKafkaRouteConfigs).containsKeys("post-endpoint-example");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getReplyKafkaRouteConfig() {
+        var route = config.getRouteByName("post-endpoint-example");
+        var response = route.getResponse().withTopic(route.getResponse().getTopic());
+        var perInstanceRoute = new RouteConfig();
+
+        response.setReplyTopicPerInstance(true);
+        perInstanceRoute.setResponse(response);
+
+        Assertions.assertThat(config.getReplyKafkaRouteConfig(route).getTopic())
+                .isEqualTo(route.getResponse().getTopic());
+
+        var perInstanceConfig = new Config();
+        Assertions.assertThatThrownBy(() -> perInstanceConfig.getReplyKafkaRouteConfig(
+                perInstanceRoute)).isInstanceOf(IllegalStateException.class);
+
+        perInstanceConfig.getInstance().setId("ravine-0");
+        Assertions.assertThat(perInstanceConfig.getReplyKafkaRouteConfig(perInstanceRoute))
+                .hasFieldOrPropertyWithValue("topic",
+                        String.format("%s-ravine-0", response.getTopic()));
+    }
+}
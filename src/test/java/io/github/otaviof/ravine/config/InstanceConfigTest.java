@@ -0,0 +1,35 @@
+package io.github.otaviof.ravine.config;
+
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class InstanceConfigTest {
+    private static InstanceConfig instance(Integer ordinal, int replicas) {
+        var instance = new InstanceConfig();
+
+        instance.setOrdinal(ordinal);
+        instance.setReplicas(replicas);
+        return instance;
+    }
+
+    @Test
+    void share() {
+        var partitions = List.of(0, 1, 2, 3, 4);
+
+        Assertions.assertThat(instance(null, 1).share(partitions)).isEqualTo(partitions);
+        Assertions.assertThat(instance(0, 2).share(partitions)).containsExactly(0, 2, 4);
+        Assertions.assertThat(instance(1, 2).share(partitions)).containsExactly(1, 3);
+    }
+
+    @Test
+    void invalidShare() {
+        Assertions.assertThatThrownBy(() -> instance(null, 2).share(List.of(0, 1)))
+                .isInstanceOf(IllegalStateException.class);
+        Assertions.assertThatThrownBy(() -> instance(2, 2).share(List.of(0, 1)))
+                .isInstanceOf(IllegalStateException.class);
+        Assertions.assertThatThrownBy(() -> instance(0, 3).share(List.of(0, 1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not enough");
+    }
+}
@@ -1,17 +1,20 @@
 package io.github.otaviof.ravine.integration;
 
+import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
+import io.confluent.kafka.streams.serdes.avro.GenericAvroSerializer;
 import io.github.otaviof.ravine.config.Config;
 import io.github.otaviof.ravine.config.KafkaRouteConfig;
 import io.github.otaviof.ravine.config.RouteConfig;
 import io.github.otaviof.ravine.kafka.AvroConsumer;
-import io.github.otaviof.ravine.kafka.AvroConsumerRunnable;
 import io.github.otaviof.ravine.kafka.AvroProducer;
+import io.github.otaviof.ravine.router.EventSink;
 import io.opentracing.Tracer;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
+import org.apache.kafka.clients.producer.KafkaProducer;
 
 /**
  * Pretends to be a external application interacting via Kafka with Ravine. It consume from all
@@ -22,22 +25,30 @@ import org.springframework.context.ApplicationEventPublisher;
 class ExternalActor {
     private final Map<AvroConsumer, Thread> consumerThreads;
 
-    ExternalActor(Tracer tracer, ApplicationEventPublisher publisher, Config config) {
+    ExternalActor(Tracer tracer, EventSink sink, Config config) {
         this.consumerThreads = new HashMap<>();
 
         for (RouteConfig routeConfig : config.getRoutes()) {
             if (routeConfig.getResponse() != null) {
                 var producerConfig = prepareRequestKafkaRouteConfig(routeConfig);
-                var producer = new AvroProducer(tracer, "integration", config.getKafka(),
-                        producerConfig);
+                var producer = new AvroProducer(tracer, "integration", new KafkaProducer<>(
+                        AvroProducer.producerProperties(config.getKafka(), producerConfig)),
+                        producerConfig, null);
+                var serializer = new GenericAvroSerializer();
                 var subject = routeConfig.getSubject();
-                var listener = new ExternalActorEventListener(producer,
+
+                serializer.configure(Collections.singletonMap(
+                        AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG,
+                        config.getKafka().getSchemaRegistryUrl()), false);
+                var listener = new ExternalActorEventListener(producer, serializer,
+                        producerConfig.getTopic(),
                         subject == null ? "RavineEmptyRecord" : subject.getName());
             }
 
             var consumerConfig = prepareResponseKafkaRouteConfig(routeConfig);
-            var consumer = new AvroConsumer(tracer, publisher, config.getKafka(), consumerConfig);
-            var thread = new Thread(new AvroConsumerRunnable(consumer));
+            var consumer = new AvroConsumer(
+                    tracer, sink, k -> true, k -> false, config.getKafka(), consumerConfig);
+            var thread = new Thread(consumer);
 
             this.consumerThreads.put(consumer, thread);
         }
@@ -3,21 +3,31 @@ package io.github.otaviof.ravine.integration;
 import io.github.otaviof.ravine.kafka.AvroProducer;
 import io.github.otaviof.ravine.kafka.AvroProducerException;
 import io.github.otaviof.ravine.router.Event;
+import io.github.otaviof.ravine.router.EventSink;
 import java.util.HashMap;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationListener;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.serialization.Serializer;
 
 /**
  * Listen over events produced by the External Actor, and proxy messages to the producer instance,
  * informed on constructor.
  */
 @Slf4j
-class ExternalActorEventListener implements ApplicationListener<Event> {
+class ExternalActorEventListener implements EventSink {
     private final AvroProducer producer;
+    private final Serializer<GenericRecord> serializer;
+    private final String topic;
     private final String schemaName;
 
-    ExternalActorEventListener(AvroProducer producer, String schemaName) {
+    ExternalActorEventListener(
+            AvroProducer producer,
+            Serializer<GenericRecord> serializer,
+            String topic,
+            String schemaName) {
         this.producer = producer;
+        this.serializer = serializer;
+        this.topic = topic;
         this.schemaName = schemaName;
     }
 
@@ -25,9 +35,10 @@ class ExternalActorEventListener implements ApplicationListener<Event> {
      * On every event received, forward the payload to the producer instance.
      *
      * @param event Event;
+     * @return boolean, always true;
      */
     @Override
-    public void onApplicationEvent(Event event) {
+    public boolean offer(Event event) {
         try {
             var schema = event.getV().getSchema().getName();
 
@@ -35,12 +46,25 @@ class ExternalActorEventListener implements ApplicationListener<Event> {
                     schema, event.getK(), event.getV());
 
             if (schemaName.equals(schema)) {
-                this.producer.send(event.getK(), event.getV(), new HashMap<>());
+                var v = serializer.serialize(topic, event.getV());
+                this.producer.send(event.getK(), v, new HashMap<>());
             } else {
                 log.info("[TEST] Skipping record!");
             }
         } catch (AvroProducerException e) {
             e.printStackTrace();
         }
+        return true;
+    }
+
+    /**
+     * Events are never rejected, since offer always takes them.
+     *
+     * @param event Event;
+     * @param reason rejection reason;
+     */
+    @Override
+    public void reject(Event event, String reason) {
+        log.warn("[TEST] event rejected, key: '{}', reason: '{}'", event.getK(), reason);
     }
 }
@@ -1,10 +1,13 @@
 package io.github.otaviof.ravine.integration;
 
 import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import io.github.otaviof.ravine.Ravine;
 import io.github.otaviof.ravine.config.Config;
+import io.github.otaviof.ravine.router.ResponseBus;
 import io.opentracing.Tracer;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
@@ -17,12 +20,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootContextLoader;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
@@ -46,7 +50,7 @@ class RavineIntegrationTest {
     Config config;
 
     @Autowired
-    ApplicationEventPublisher publisher;
+    ResponseBus responseBus;
 
     @Autowired
     Tracer tracer;
@@ -74,12 +78,27 @@ class RavineIntegrationTest {
         }
 
         log.info("Instantiating external actor to simulate a third party application...");
-        externalActor = new ExternalActor(tracer, publisher, config);
+        externalActor = new ExternalActor(tracer, responseBus, config);
 
         externalActor.bootstrap();
         await().atMost(60, TimeUnit.SECONDS).until(externalActor::isConsumerReady);
     }
 
+    /**
+     * Execute a request against asynchronous endpoints, waiting for the result to be dispatched.
+     *
+     * @param builder request builder;
+     * @return result actions of dispatched response;
+     * @throws Exception on errors;
+     */
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        var result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     /**
      * Execute a GET request to request data. The data is produced by the ExternalActor, which is
      * inspecting request parameters (informed as Kafka headers) to create a dummy response. When
@@ -94,7 +113,7 @@ class RavineIntegrationTest {
         Assertions.assertThat(route.getRequest().getTopic())
                 .isNotEqualTo(route.getResponse().getTopic());
 
-        mockMvc.perform(MockMvcRequestBuilders
+        performAsync(MockMvcRequestBuilders
                 .get(route.getEndpoint().getPath())
                 .accept(route.getEndpoint().getResponse().getContentType()))
                 .andExpect(status().is(route.getEndpoint().getResponse().getHttpCode()))
@@ -116,7 +135,7 @@ class RavineIntegrationTest {
         Assertions.assertThat(route.getRequest().getTopic())
                 .isNotEqualTo(route.getResponse().getTopic());
 
-        mockMvc.perform(MockMvcRequestBuilders
+        performAsync(MockMvcRequestBuilders
                 .post(route.getEndpoint().getPath())
                 .content(PERSON_PAYLOAD)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -140,7 +159,7 @@ class RavineIntegrationTest {
         // response topic should not be defined
         Assertions.assertThat(route.getResponse()).isNull();
 
-        mockMvc.perform(MockMvcRequestBuilders
+        performAsync(MockMvcRequestBuilders
                 .put(route.getEndpoint().getPath())
                 .content(PERSON_PAYLOAD)
                 .contentType(MediaType.APPLICATION_JSON))
@@ -0,0 +1,80 @@
+package io.github.otaviof.ravine.kafka;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AvroBinaryReaderTest {
+    private static final Schema SCHEMA = new Schema.Parser().parse("{"
+            + "\"type\": \"record\", \"name\": \"Wide\", \"fields\": ["
+            + "{\"name\": \"name\", \"type\": \"string\"},"
+            + "{\"name\": \"note\", \"type\": [\"null\", \"string\"]},"
+            + "{\"name\": \"flag\", \"type\": \"boolean\"},"
+            + "{\"name\": \"count\", \"type\": \"long\"},"
+            + "{\"name\": \"ratio\", \"type\": \"double\"},"
+            + "{\"name\": \"raw\", \"type\": \"bytes\"},"
+            + "{\"name\": \"id\", \"type\": {\"type\": \"fixed\", \"name\": \"Id\", \"size\": 2}},"
+            + "{\"name\": \"kind\", \"type\": {\"type\": \"enum\", \"name\": \"Kind\","
+            + "  \"symbols\": [\"A\", \"B\"]}},"
+            + "{\"name\": \"items\", \"type\": {\"type\": \"array\", \"items\": {"
+            + "  \"type\": \"record\", \"name\": \"Item\", \"fields\": ["
+            + "  {\"name\": \"qty\", \"type\": \"int\"}]}}},"
+            + "{\"name\": \"attrs\", \"type\": {\"type\": \"map\", \"values\": \"float\"}}"
+            + "]}");
+
+    private GenericRecord sample() {
+        var item = new GenericData.Record(SCHEMA.getField("items").schema().getElementType());
+        var record = new GenericData.Record(SCHEMA);
+
+        item.put("qty", 3);
+        record.put("name", "name");
+        record.put("note", "note");
+        record.put("flag", true);
+        record.put("count", 42L);
+        record.put("ratio", 0.5);
+        record.put("raw", ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        record.put("id", new GenericData.Fixed(SCHEMA.getField("id").schema(), new byte[]{4, 5}));
+        record.put("kind", new GenericData.EnumSymbol(SCHEMA.getField("kind").schema(), "B"));
+        record.put("items", List.of(item, item));
+        record.put("attrs", Map.of("a", 1.5f));
+
+        return record;
+    }
+
+    @Test
+    void readSameAsGenericDatumReader() throws Exception {
+        var out = new ByteArrayOutputStream();
+        var encoder = EncoderFactory.get().binaryEncoder(out, null);
+
+        new GenericDatumWriter<GenericRecord>(SCHEMA).write(sample(), encoder);
+        encoder.flush();
+
+        var bytes = out.toByteArray();
+        var expected = new GenericDatumReader<GenericRecord>(SCHEMA)
+                .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+        var actual = AvroBinaryReader.forSchema(SCHEMA)
+                .read(DecoderFactory.get().binaryDecoder(bytes, null));
+
+        Assertions.assertThat(actual).isEqualTo(expected);
+        Assertions.assertThat(actual.get("name")).isEqualTo(expected.get("name"));
+        Assertions.assertThat(actual.get("attrs")).isEqualTo(expected.get("attrs"));
+    }
+
+    @Test
+    void cachedByFingerprint() {
+        var copy = new Schema.Parser().parse(SCHEMA.toString());
+
+        Assertions.assertThat(AvroBinaryReader.forSchema(copy))
+                .isSameAs(AvroBinaryReader.forSchema(SCHEMA));
+    }
+}
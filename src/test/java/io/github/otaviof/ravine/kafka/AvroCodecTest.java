@@ -0,0 +1,91 @@
+package io.github.otaviof.ravine.kafka;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AvroCodecTest {
+    private Schema schema;
+    private AvroCodec codec;
+
+    @BeforeEach
+    void prepare() throws IOException {
+        schema = new Schema.Parser().parse(getClass().getResourceAsStream("/avro/person.avsc"));
+        codec = new AvroCodec(schema, 42);
+    }
+
+    private GenericRecord decode(byte[] bytes) throws IOException {
+        var body = Arrays.copyOfRange(bytes, AvroWireFormat.HEADER_SIZE, bytes.length);
+        var dec = DecoderFactory.get().binaryDecoder(body, null);
+        return new GenericDatumReader<GenericRecord>(schema).read(null, dec);
+    }
+
+    @Test
+    void jsonToWireFormat() throws Exception {
+        var first = codec.jsonToWireFormat("{\"firstName\":\"a\",\"lastName\":\"b\"}".getBytes());
+        var second = codec.jsonToWireFormat("{\"firstName\":\"c\",\"lastName\":\"d\"}".getBytes());
+
+        Assertions.assertThat(Arrays.copyOf(first, 5)).containsExactly(0, 0, 0, 0, 42);
+        Assertions.assertThat(decode(first).get("firstName").toString()).isEqualTo("a");
+        Assertions.assertThat(decode(second).get("lastName").toString()).isEqualTo("d");
+    }
+
+    @Test
+    void invalidPayload() throws Exception {
+        Assertions.assertThatThrownBy(() -> codec.jsonToWireFormat("{\"firstName\":1}".getBytes()))
+                .isInstanceOf(ProducerGroupAvroConversionException.class)
+                .hasMessageContaining("Person.firstName");
+
+        var bytes = codec.jsonToWireFormat("{\"firstName\":\"a\",\"lastName\":\"b\"}".getBytes());
+        Assertions.assertThat(decode(bytes).get("lastName").toString()).isEqualTo("b");
+    }
+
+    @Test
+    void invalidPayloadAfterFields() throws Exception {
+        var valid = "{\"firstName\":\"c\",\"lastName\":\"d\"}".getBytes();
+        var expected = codec.jsonToWireFormat(valid);
+
+        Assertions.assertThat(expected).containsExactly(0, 0, 0, 0, 42, 2, 99, 2, 100);
+        Assertions.assertThatThrownBy(() -> codec.jsonToWireFormat(
+                "{\"firstName\":\"XXXX\",\"lastName\":1}".getBytes()))
+                .isInstanceOf(ProducerGroupAvroConversionException.class)
+                .hasMessageContaining("Person.lastName");
+
+        Assertions.assertThat(codec.jsonToWireFormat(valid)).isEqualTo(expected);
+    }
+
+    @Test
+    void binaryToWireFormat() throws Exception {
+        var wire = codec.jsonToWireFormat("{\"firstName\":\"a\",\"lastName\":\"b\"}".getBytes());
+        var binary = Arrays.copyOfRange(wire, AvroWireFormat.HEADER_SIZE, wire.length);
+
+        Assertions.assertThat(codec.binaryToWireFormat(binary)).isEqualTo(wire);
+        Assertions.assertThat(codec.validateWireFormat(wire)).isSameAs(wire);
+    }
+
+    @Test
+    void invalidBinaryPayload() throws Exception {
+        var wire = codec.jsonToWireFormat("{\"firstName\":\"a\",\"lastName\":\"b\"}".getBytes());
+        var truncated = Arrays.copyOf(wire, wire.length - 1);
+        var trailing = Arrays.copyOf(wire, wire.length + 1);
+        var otherId = new AvroCodec(schema, 7).jsonToWireFormat(
+                "{\"firstName\":\"a\",\"lastName\":\"b\"}".getBytes());
+
+        Assertions.assertThatThrownBy(() -> codec.validateWireFormat(truncated))
+                .isInstanceOf(ProducerGroupAvroConversionException.class);
+        Assertions.assertThatThrownBy(() -> codec.validateWireFormat(trailing))
+                .isInstanceOf(ProducerGroupAvroConversionException.class)
+                .hasMessageContaining("trailing");
+        Assertions.assertThatThrownBy(() -> codec.validateWireFormat(otherId))
+                .isInstanceOf(ProducerGroupAvroConversionException.class)
+                .hasMessageContaining("schema id '7'");
+        Assertions.assertThatThrownBy(() -> codec.binaryToWireFormat(new byte[]{(byte) 0x7f}))
+                .isInstanceOf(ProducerGroupAvroConversionException.class);
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.otaviof.ravine.kafka;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.util.Utf8;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AvroJsonWriterTest {
+    private static final Schema SCHEMA = new Schema.Parser().parse("{"
+            + "\"type\": \"record\", \"name\": \"Sample\", \"fields\": ["
+            + "{\"name\": \"name\", \"type\": \"string\"},"
+            + "{\"name\": \"note\", \"type\": [\"null\", \"string\"]},"
+            + "{\"name\": \"raw\", \"type\": \"bytes\"},"
+            + "{\"name\": \"price\", \"type\": {\"type\": \"bytes\", \"logicalType\": \"decimal\","
+            + "  \"precision\": 6, \"scale\": 2}},"
+            + "{\"name\": \"counts\", \"type\": {\"type\": \"array\", \"items\": \"int\"}},"
+            + "{\"name\": \"attrs\", \"type\": {\"type\": \"map\", \"values\": \"boolean\"}}"
+            + "]}");
+
+    @Test
+    void write() throws Exception {
+        var record = new GenericData.Record(SCHEMA);
+
+        record.put("name", new Utf8("quote \" and é"));
+        record.put("note", null);
+        record.put("raw", ByteBuffer.wrap(new byte[]{0x61, (byte) 0xff}));
+        record.put("price", ByteBuffer.wrap(new byte[]{0x04, (byte) 0xd2}));
+        record.put("counts", List.of(1, 2));
+        record.put("attrs", Map.of("a", true));
+
+        var out = new ByteArrayOutputStream();
+        AvroJsonWriter.write(record, out);
+
+        Assertions.assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"name\":\"quote \\\" and é\",\"note\":null,\"raw\":\"aÿ\","
+                        + "\"price\":12.34,\"counts\":[1,2],\"attrs\":{\"a\":true}}");
+    }
+}
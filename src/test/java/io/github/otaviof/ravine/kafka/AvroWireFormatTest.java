@@ -0,0 +1,49 @@
+package io.github.otaviof.ravine.kafka;
+
+import java.io.ByteArrayOutputStream;
+import org.apache.avro.SchemaBuilder;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AvroWireFormatTest {
+    @Test
+    void writeHeader() {
+        var out = new ByteArrayOutputStream();
+
+        AvroWireFormat.writeHeader(out, 0x01020304);
+
+        Assertions.assertThat(out.toByteArray()).containsExactly(0, 1, 2, 3, 4);
+        Assertions.assertThat(out.size()).isEqualTo(AvroWireFormat.HEADER_SIZE);
+    }
+
+    @Test
+    void schemaId() {
+        Assertions.assertThat(AvroWireFormat.schemaId(new byte[]{0, 1, 2, 3, 4, 5}))
+                .isEqualTo(0x01020304);
+        Assertions.assertThat(AvroWireFormat.schemaId(new byte[]{1, 1, 2, 3, 4})).isNull();
+        Assertions.assertThat(AvroWireFormat.schemaId(new byte[]{0, 1})).isNull();
+    }
+
+    @Test
+    void valueSubject() {
+        Assertions.assertThat(AvroWireFormat.valueSubject("topic")).isEqualTo("topic-value");
+    }
+
+    @Test
+    void valueSubjectStrategy() {
+        var schema = SchemaBuilder.record("Record").namespace("ns").fields().endRecord();
+        var serializers = "io.confluent.kafka.serializers.subject.";
+
+        Assertions.assertThat(AvroWireFormat.valueSubject("topic", schema, null))
+                .isEqualTo("topic-value");
+        Assertions.assertThat(AvroWireFormat.valueSubject(
+                "topic", schema, serializers + "TopicNameStrategy")).isEqualTo("topic-value");
+        Assertions.assertThat(AvroWireFormat.valueSubject(
+                "topic", schema, serializers + "RecordNameStrategy")).isEqualTo("ns.Record");
+        Assertions.assertThat(AvroWireFormat.valueSubject(
+                "topic", schema, serializers + "TopicRecordNameStrategy"))
+                .isEqualTo("topic-ns.Record");
+        Assertions.assertThat(AvroWireFormat.valueSubject("topic", schema, "custom.Strategy"))
+                .isNull();
+    }
+}
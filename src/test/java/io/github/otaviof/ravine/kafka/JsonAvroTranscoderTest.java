@@ -0,0 +1,95 @@
+package io.github.otaviof.ravine.kafka;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class JsonAvroTranscoderTest {
+    private static final Schema SCHEMA = new Schema.Parser().parse("{"
+            + "\"type\": \"record\", \"name\": \"Order\", \"fields\": ["
+            + "{\"name\": \"id\", \"type\": \"long\"},"
+            + "{\"name\": \"note\", \"type\": [\"null\", \"string\"], \"default\": null},"
+            + "{\"name\": \"status\", \"type\": {\"type\": \"enum\", \"name\": \"Status\","
+            + "  \"symbols\": [\"NEW\", \"DONE\"]}, \"default\": \"NEW\"},"
+            + "{\"name\": \"items\", \"type\": {\"type\": \"array\", \"items\": {"
+            + "  \"type\": \"record\", \"name\": \"Item\", \"fields\": ["
+            + "    {\"name\": \"sku\", \"type\": \"string\"},"
+            + "    {\"name\": \"qty\", \"type\": \"int\"}]}}},"
+            + "{\"name\": \"tags\", \"type\": {\"type\": \"map\", \"values\": \"double\"},"
+            + "  \"default\": {}},"
+            + "{\"name\": \"next\", \"type\": [\"null\", \"Order\"], \"default\": null}"
+            + "]}");
+
+    private final JsonAvroTranscoder transcoder = new JsonAvroTranscoder(SCHEMA);
+
+    private GenericRecord transcode(String json) throws Exception {
+        var out = new ByteArrayOutputStream();
+        var enc = EncoderFactory.get().binaryEncoder(out, null);
+
+        transcoder.transcode(json.getBytes(), enc);
+        enc.flush();
+
+        var dec = DecoderFactory.get().binaryDecoder(out.toByteArray(), null);
+        return new GenericDatumReader<GenericRecord>(SCHEMA).read(null, dec);
+    }
+
+    @Test
+    void naturalJson() throws Exception {
+        var record = transcode("{\"id\": 1, \"note\": \"hi\", \"status\": \"DONE\","
+                + "\"items\": [{\"sku\": \"a\", \"qty\": 2}], \"tags\": {\"x\": 1.5},"
+                + "\"next\": {\"id\": 2, \"items\": []}}");
+
+        Assertions.assertThat(record.get("id")).isEqualTo(1L);
+        Assertions.assertThat(record.get("note").toString()).isEqualTo("hi");
+        Assertions.assertThat(record.get("status").toString()).isEqualTo("DONE");
+        Assertions.assertThat(((List<?>) record.get("items"))).hasSize(1);
+        Assertions.assertThat(((Map<?, ?>) record.get("tags")).values().toArray())
+                .containsExactly(1.5);
+        Assertions.assertThat(((GenericRecord) record.get("next")).get("id")).isEqualTo(2L);
+    }
+
+    @Test
+    void anyFieldOrderAndDefaults() throws Exception {
+        var record = transcode("{\"items\": [{\"qty\": 3, \"sku\": \"b\"}], \"id\": 7,"
+                + "\"unknown\": {\"ignored\": true}}");
+
+        Assertions.assertThat(record.get("id")).isEqualTo(7L);
+        Assertions.assertThat(record.get("note")).isNull();
+        Assertions.assertThat(record.get("status").toString()).isEqualTo("NEW");
+        Assertions.assertThat(((GenericRecord) ((List<?>) record.get("items")).get(0)).get("qty"))
+                .isEqualTo(3);
+        Assertions.assertThat(record.get("next")).isNull();
+    }
+
+    @Test
+    void avroUnionEncoding() throws Exception {
+        var record = transcode("{\"id\": 1, \"items\": [], \"note\": {\"string\": \"tagged\"}}");
+
+        Assertions.assertThat(record.get("note").toString()).isEqualTo("tagged");
+    }
+
+    @Test
+    void fieldPathErrors() {
+        Assertions.assertThatThrownBy(() -> transcode(
+                "{\"id\": 1, \"items\": [{\"sku\": \"a\", \"qty\": 1}, {\"sku\": \"b\", \"qty\": \"x\"}]}"))
+                .isInstanceOf(ProducerGroupAvroConversionException.class)
+                .hasMessageContaining("Order.items[1].qty");
+        Assertions.assertThatThrownBy(() -> transcode("{\"items\": []}"))
+                .isInstanceOf(ProducerGroupAvroConversionException.class)
+                .hasMessageContaining("Order.id")
+                .hasMessageContaining("missing");
+        Assertions.assertThatThrownBy(() -> transcode("{\"id\": 1, \"items\": [], \"status\": \"X\"}"))
+                .isInstanceOf(ProducerGroupAvroConversionException.class)
+                .hasMessageContaining("Order.status");
+        Assertions.assertThatThrownBy(() -> transcode("{\"id\": 1, "))
+                .isInstanceOf(ProducerGroupAvroConversionException.class);
+    }
+}
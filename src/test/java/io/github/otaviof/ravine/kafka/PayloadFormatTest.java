@@ -0,0 +1,27 @@
+package io.github.otaviof.ravine.kafka;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PayloadFormatTest {
+    @Test
+    void fromContentType() {
+        Assertions.assertThat(PayloadFormat.fromContentType(null)).isEqualTo(PayloadFormat.JSON);
+        Assertions.assertThat(PayloadFormat.fromContentType("application/json; charset=utf-8"))
+                .isEqualTo(PayloadFormat.JSON);
+        Assertions.assertThat(PayloadFormat.fromContentType(PayloadFormat.AVRO_BINARY_VALUE))
+                .isEqualTo(PayloadFormat.AVRO_BINARY);
+        Assertions.assertThat(PayloadFormat.fromContentType(PayloadFormat.AVRO_WIRE_FORMAT_VALUE))
+                .isEqualTo(PayloadFormat.AVRO_WIRE_FORMAT);
+    }
+
+    @Test
+    void acceptsWireFormat() {
+        Assertions.assertThat(PayloadFormat.acceptsWireFormat(null)).isFalse();
+        Assertions.assertThat(PayloadFormat.acceptsWireFormat("*/*")).isFalse();
+        Assertions.assertThat(PayloadFormat.acceptsWireFormat("application/json")).isFalse();
+        Assertions.assertThat(PayloadFormat.acceptsWireFormat(
+                "application/json;q=0.5, application/vnd.confluent.avro+binary")).isTrue();
+        Assertions.assertThat(PayloadFormat.acceptsWireFormat("application/")).isFalse();
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.config.Config;
+import io.github.otaviof.ravine.config.KafkaRouteConfig;
+import io.github.otaviof.ravine.config.RouteConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControlTest {
+    private static RouteConfig route(String name, int maxInFlight) {
+        var response = new KafkaRouteConfig();
+        var route = new RouteConfig();
+
+        response.setMaxInFlight(maxInFlight);
+        route.setName(name);
+        route.setResponse(response);
+        return route;
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RouteConfig limited = route("limited", 2);
+    private final RouteConfig unlimited = route("unlimited", 0);
+
+    private AdmissionControl admissionControl(int maxInFlight) {
+        var config = new Config();
+
+        config.getExecutor().setMaxInFlight(maxInFlight);
+        config.setRoutes(List.of(limited, unlimited));
+        return new AdmissionControl(config, meterRegistry);
+    }
+
+    @Test
+    void routeLimit() throws RouterRouteOverloadedException {
+        var admissionControl = admissionControl(0);
+        var first = admissionControl.acquire(limited);
+
+        admissionControl.acquire(limited);
+        Assertions.assertThatThrownBy(() -> admissionControl.acquire(limited))
+                .isInstanceOf(RouterRouteOverloadedException.class);
+        Assertions.assertThat(admissionControl.inFlight("limited")).isEqualTo(2);
+
+        first.release();
+        first.release();
+        Assertions.assertThat(admissionControl.inFlight("limited")).isEqualTo(1);
+        admissionControl.acquire(limited);
+
+        Assertions.assertThat(meterRegistry.get("ravine.route.rejected")
+                .tag("route", "limited").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void instanceLimit() throws RouterRouteOverloadedException {
+        var admissionControl = admissionControl(1);
+
+        admissionControl.acquire(unlimited);
+        Assertions.assertThatThrownBy(() -> admissionControl.acquire(limited))
+                .isInstanceOf(RouterRouteOverloadedException.class)
+                .hasFieldOrPropertyWithValue("retryAfterSeconds", 1);
+        Assertions.assertThat(admissionControl.inFlight("limited")).isZero();
+    }
+
+    @Test
+    void adaptiveLimit() throws RouterRouteOverloadedException {
+        var adaptive = route("adaptive", 0);
+        var config = new Config();
+
+        adaptive.getResponse().getAdaptiveLimit().setEnabled(true);
+        adaptive.getResponse().getAdaptiveLimit().setInitialLimit(1);
+        config.setRoutes(List.of(adaptive));
+
+        var admissionControl = new AdmissionControl(config, meterRegistry);
+        var permit = admissionControl.acquire(adaptive);
+
+        Assertions.assertThat(admissionControl.limit("adaptive")).isEqualTo(1);
+        Assertions.assertThatThrownBy(() -> admissionControl.acquire(adaptive))
+                .isInstanceOf(RouterRouteOverloadedException.class);
+
+        permit.release(null);
+        Assertions.assertThat(admissionControl.inFlight("adaptive")).isZero();
+        Assertions.assertThat(meterRegistry.get("ravine.route.limit")
+                .tag("route", "adaptive").gauge().value()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.kafka.PayloadFormat;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class RequestTest {
+    private MockHttpServletRequest servletRequest(byte[] content) {
+        var req = new MockHttpServletRequest("POST", "/test");
+
+        req.setContentType(PayloadFormat.AVRO_BINARY_VALUE);
+        req.setContent(content);
+        return req;
+    }
+
+    @Test
+    void readBody() throws Exception {
+        var request = new Request(servletRequest("{\"a\":1}".getBytes()), 16);
+
+        Assertions.assertThat(request.getBody()).isEqualTo("{\"a\":1}".getBytes());
+        Assertions.assertThat(request.getFormat()).isEqualTo(PayloadFormat.AVRO_BINARY);
+    }
+
+    @Test
+    void readBodyWithoutContentLength() throws Exception {
+        var req = new MockHttpServletRequest("POST", "/test") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+
+        req.setContent(new byte[8]);
+        Assertions.assertThat(new Request(req, 8).getBody()).hasSize(8);
+
+        req.setContent(new byte[9]);
+        Assertions.assertThatThrownBy(() -> new Request(req, 8))
+                .isInstanceOf(RouterRoutePayloadTooLargeException.class);
+
+        req.setContent(new byte[9]);
+        Assertions.assertThat(new Request(req, Integer.MAX_VALUE).getBody()).hasSize(9);
+    }
+
+    @Test
+    void payloadTooLarge() {
+        Assertions.assertThatThrownBy(() -> new Request(servletRequest(new byte[17]), 16))
+                .isInstanceOf(RouterRoutePayloadTooLargeException.class)
+                .hasMessageContaining("'17' bytes");
+    }
+
+    @Test
+    void keyIgnoresHeaderNameCase() {
+        var keys = List.of("Authorization");
+        var alice = new MockHttpServletRequest("GET", "/test");
+        var bob = new MockHttpServletRequest("GET", "/test");
+        var aliceAgain = new MockHttpServletRequest("GET", "/test");
+
+        alice.addHeader("authorization", "alice");
+        bob.addHeader("authorization", "bob");
+        aliceAgain.addHeader("AUTHORIZATION", "alice");
+
+        var key = new Request(alice).key(keys);
+        Assertions.assertThat(key).contains("Authorization=alice");
+        Assertions.assertThat(new Request(bob).key(keys)).isNotEqualTo(key);
+        Assertions.assertThat(new Request(aliceAgain).key(keys)).isEqualTo(key);
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.config.Config;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = {Config.class, PendingRequests.class, ResponseBus.class})
+@Slf4j
+public class ResponseBusTest {
+    @Autowired
+    private PendingRequests pendingRequests;
+
+    @Autowired
+    private ResponseBus responseBus;
+
+    private CompletableFuture<Event> future;
+
+    @BeforeEach
+    void prepare() {
+        future = pendingRequests.register("test", "/test", 1000, false);
+        Assertions.assertThat(responseBus.offer(new Event("test", null))).isTrue();
+    }
+
+    @Test
+    void complete() throws Exception {
+        var event = future.get(200, TimeUnit.MILLISECONDS);
+
+        Assertions.assertThat(event).isNotNull();
+        Assertions.assertThat("test").isEqualTo(event.getK());
+        Assertions.assertThat(pendingRequests.isPending("test")).isFalse();
+    }
+
+    @Test
+    void notPending() {
+        var unknown = pendingRequests.register("unknown", "/test", 1000, false);
+
+        pendingRequests.remove("unknown");
+        responseBus.offer(new Event("unknown", null));
+
+        Assertions.assertThat(unknown).isNotDone();
+        Assertions.assertThat(pendingRequests.isPending("unknown")).isFalse();
+    }
+}
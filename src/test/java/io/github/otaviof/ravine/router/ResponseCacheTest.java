@@ -0,0 +1,45 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.config.CacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+    private final ResponseCache cache =
+            new ResponseCache("test", new CacheConfig(), new SimpleMeterRegistry());
+
+    @Test
+    void storeAndLookup() {
+        var stored = cache.store("key", new Response(200, new byte[]{1, 2, 3}));
+
+        Assertions.assertThat(stored.getETag()).isNotNull();
+        Assertions.assertThat(stored.getLastModified()).isPositive();
+        Assertions.assertThat(cache.lookup("other", null)).isNull();
+
+        var hit = cache.lookup("key", null);
+        Assertions.assertThat(hit.getStatusCode()).isEqualTo(200);
+        Assertions.assertThat(hit.getBody()).isEqualTo(new byte[]{1, 2, 3});
+        Assertions.assertThat(hit.getETag()).isEqualTo(stored.getETag());
+
+        var notModified = cache.lookup("key", "W/" + stored.getETag());
+        Assertions.assertThat(notModified.getStatusCode()).isEqualTo(304);
+        Assertions.assertThat(notModified.getBody()).isNull();
+    }
+
+    @Test
+    void notCacheable() {
+        var response = cache.store("key", new Response(500, "text/plain", "error"));
+
+        Assertions.assertThat(response.getETag()).isNull();
+        Assertions.assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void matches() {
+        Assertions.assertThat(ResponseCache.matches(null, "\"a\"")).isFalse();
+        Assertions.assertThat(ResponseCache.matches("*", "\"a\"")).isTrue();
+        Assertions.assertThat(ResponseCache.matches("\"b\", W/\"a\"", "\"a\"")).isTrue();
+        Assertions.assertThat(ResponseCache.matches("\"b\"", "\"a\"")).isFalse();
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.otaviof.ravine.router;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RingBufferTest {
+    @Test
+    void capacity() {
+        Assertions.assertThat(new RingBuffer<String>(3).capacity()).isEqualTo(4);
+        Assertions.assertThat(new RingBuffer<String>(8).capacity()).isEqualTo(8);
+    }
+
+    @Test
+    void offerAndPoll() {
+        var ring = new RingBuffer<String>(2);
+
+        Assertions.assertThat(ring.poll()).isNull();
+        Assertions.assertThat(ring.offer("a")).isTrue();
+        Assertions.assertThat(ring.offer("b")).isTrue();
+        Assertions.assertThat(ring.offer("c")).isFalse();
+        Assertions.assertThat(ring.size()).isEqualTo(2);
+
+        Assertions.assertThat(ring.poll()).isEqualTo("a");
+        Assertions.assertThat(ring.offer("c")).isTrue();
+        Assertions.assertThat(ring.poll()).isEqualTo("b");
+        Assertions.assertThat(ring.poll()).isEqualTo("c");
+        Assertions.assertThat(ring.poll()).isNull();
+    }
+
+    @Test
+    void concurrentProducers() throws InterruptedException {
+        var ring = new RingBuffer<Integer>(1024);
+        var producers = new Thread[4];
+
+        for (var i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                for (var n = 0; n < 1000; n++) {
+                    while (!ring.offer(n)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            producers[i].start();
+        }
+
+        var polled = 0;
+        while (polled < producers.length * 1000) {
+            if (ring.poll() != null) {
+                polled++;
+            }
+        }
+        for (var producer : producers) {
+            producer.join();
+        }
+
+        Assertions.assertThat(ring.size()).isZero();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.config.EndpointConfig;
+import io.github.otaviof.ravine.config.RouteConfig;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RoutingTableTest {
+    private static RouteConfig route(String name, String path, String... methods) {
+        var endpoint = new EndpointConfig();
+        var route = new RouteConfig();
+
+        endpoint.setPath(path);
+        endpoint.setMethods(List.of(methods));
+        route.setName(name);
+        route.setEndpoint(endpoint);
+        return route;
+    }
+
+    private final RoutingTable table = new RoutingTable(List.of(
+            route("root", "/", "get"),
+            route("orders", "/v1/orders", "post", "PUT"),
+            route("order", "/v1/orders/{id}", "get"),
+            route("latest", "/v1/orders/latest", "get"),
+            route("item", "/v1/orders/{id}/items/{item}", "get")));
+
+    @Test
+    void lookup() {
+        Assertions.assertThat(table.lookup("/").getRouteConfig().getName()).isEqualTo("root");
+        Assertions.assertThat(table.lookup("/v1/orders").getVariables()).isEmpty();
+        Assertions.assertThat(table.lookup("/v1/orders/latest").getRouteConfig().getName())
+                .isEqualTo("latest");
+        Assertions.assertThat(table.lookup("/v1/orders/42").getVariables())
+                .isEqualTo(Map.of("id", "42"));
+        Assertions.assertThat(table.lookup("/v1/orders/42/items/7").getVariables())
+                .containsEntry("id", "42")
+                .containsEntry("item", "7");
+
+        Assertions.assertThat(table.lookup("/v1/orders/")).isNull();
+        Assertions.assertThat(table.lookup("/v1/orders/42/items")).isNull();
+        Assertions.assertThat(table.lookup("/v2/orders")).isNull();
+        Assertions.assertThat(table.lookup("v1/orders")).isNull();
+        Assertions.assertThat(table.lookup("")).isNull();
+    }
+
+    @Test
+    void allows() {
+        var match = table.lookup("/v1/orders");
+
+        Assertions.assertThat(match.allows("POST")).isTrue();
+        Assertions.assertThat(match.allows("put")).isTrue();
+        Assertions.assertThat(match.allows("GET")).isFalse();
+        Assertions.assertThat(match.allows("BREW")).isFalse();
+    }
+}
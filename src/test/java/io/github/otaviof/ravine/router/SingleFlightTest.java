@@ -0,0 +1,59 @@
+package io.github.otaviof.ravine.router;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class SingleFlightTest {
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void coalesce() throws Exception {
+        var outcome = new CompletableFuture<String>();
+        var leader = singleFlight.acquire("key");
+        var follower = singleFlight.acquire("key");
+        var other = singleFlight.acquire("other");
+
+        Assertions.assertThat(leader.isLeader()).isTrue();
+        Assertions.assertThat(follower.isLeader()).isFalse();
+        Assertions.assertThat(other.isLeader()).isTrue();
+
+        leader.complete(outcome);
+        outcome.complete("response");
+
+        Assertions.assertThat(leader.getFuture().get()).isEqualTo("response");
+        Assertions.assertThat(follower.getFuture().get()).isEqualTo("response");
+        Assertions.assertThat(singleFlight.acquire("key").isLeader()).isTrue();
+    }
+
+    @Test
+    void fail() {
+        var leader = singleFlight.acquire("key");
+        var follower = singleFlight.acquire("key");
+
+        leader.fail(new IllegalStateException("failed"));
+
+        Assertions.assertThat(follower.getFuture()).isCompletedExceptionally();
+        Assertions.assertThat(singleFlight.size()).isZero();
+    }
+
+    @Test
+    void keyedHeaderCase() {
+        var keys = List.of("Authorization");
+        var alice = new MockHttpServletRequest("GET", "/test");
+        var bob = new MockHttpServletRequest("GET", "/test");
+
+        alice.addHeader("authorization", "alice");
+        bob.addHeader("AUTHORIZATION", "bob");
+
+        var leader = singleFlight.acquire(new Request(alice).key(keys));
+        var other = singleFlight.acquire(new Request(bob).key(keys));
+
+        Assertions.assertThat(leader.isLeader()).isTrue();
+        Assertions.assertThat(other.isLeader()).isTrue();
+        Assertions.assertThat(singleFlight.acquire(new Request(alice).key(keys)).isLeader())
+                .isFalse();
+    }
+}
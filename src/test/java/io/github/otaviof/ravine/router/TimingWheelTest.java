@@ -0,0 +1,57 @@
+package io.github.otaviof.ravine.router;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void prepare() {
+        wheel = new TimingWheel(1, 8, PendingRequest::expire);
+    }
+
+    @AfterEach
+    void stop() {
+        wheel.stop();
+    }
+
+    @Test
+    void expire() {
+        var request = new PendingRequest("expire", "/test", 20, false);
+
+        wheel.schedule(request);
+
+        Assertions.assertThatThrownBy(() -> request.get(500, TimeUnit.MILLISECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RouterRouteTimeoutException.class);
+    }
+
+    @Test
+    void expireAfterRounds() throws InterruptedException {
+        // deadline is a few rotations of the wheel ahead
+        var request = new PendingRequest("rounds", "/test", 60, false);
+
+        wheel.schedule(request);
+        Thread.sleep(30);
+
+        Assertions.assertThat(request).isNotDone();
+        Assertions.assertThatThrownBy(() -> request.get(500, TimeUnit.MILLISECONDS))
+                .hasCauseInstanceOf(RouterRouteTimeoutException.class);
+    }
+
+    @Test
+    void cancel() throws InterruptedException {
+        var request = new PendingRequest("cancel", "/test", 20, false);
+
+        wheel.schedule(request);
+        wheel.cancel(request);
+        Thread.sleep(100);
+
+        Assertions.assertThat(request).isNotDone();
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.otaviof.ravine.router;
+
+import io.github.otaviof.ravine.config.AdaptiveLimitConfig;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class VegasLimitTest {
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static VegasLimit limit(int maxLimit) {
+        var config = new AdaptiveLimitConfig();
+
+        config.setInitialLimit(20);
+        config.setMaxLimit(maxLimit);
+
+        var limit = new VegasLimit(config);
+        limit.onSample(RTT, 20, false);
+        return limit;
+    }
+
+    @Test
+    void increase() {
+        var limit = limit(1000);
+
+        limit.onSample(RTT, 20, false);
+        Assertions.assertThat(limit.getLimit()).isEqualTo(26);
+
+        // not using the limit, remains the same
+        limit.onSample(RTT, 5, false);
+        Assertions.assertThat(limit.getLimit()).isEqualTo(26);
+    }
+
+    @Test
+    void boundaries() {
+        var limit = limit(22);
+
+        limit.onSample(RTT, 20, false);
+        Assertions.assertThat(limit.getLimit()).isEqualTo(22);
+    }
+
+    @Test
+    void decrease() {
+        var limit = limit(1000);
+
+        limit.onSample(RTT * 10, 20, false);
+        Assertions.assertThat(limit.getLimit()).isEqualTo(19);
+
+        limit.onSample(RTT * 10, 19, true);
+        Assertions.assertThat(limit.getLimit()).isEqualTo(18);
+    }
+}